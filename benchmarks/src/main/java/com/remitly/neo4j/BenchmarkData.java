@@ -0,0 +1,89 @@
+package com.remitly.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic directory data shaped like banks.csv, so the micro benchmarks do not depend on a file or
+ * a database.
+ */
+public final class BenchmarkData {
+    public static final String CSV_HEADER = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,"
+            + "TIME ZONE";
+
+    private static final String[][] COUNTRIES = { { "PL", "POLAND", "Europe/Warsaw" },
+            { "DE", "GERMANY", "Europe/Berlin" }, { "CL", "CHILE", "Pacific/Easter" },
+            { "BG", "BULGARIA", "Europe/Sofia" }, { "MT", "MALTA", "Europe/Malta" } };
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /** Branches generated per headquarters, in line with the larger banks of banks.csv. */
+    public static final int BRANCHES_PER_HEADQUARTERS = 15;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates SWIFT codes in groups of one headquarters followed by its branches.
+     */
+    public static List<String> swiftCodes(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            String iso2Code = COUNTRIES[random.nextInt(COUNTRIES.length)][0];
+            String bic8 = random(random, LETTERS, 4) + iso2Code + random(random, ALPHANUMERIC, 2);
+            codes.add(bic8 + "XXX");
+            for (int i = 0; i < BRANCHES_PER_HEADQUARTERS && codes.size() < count; i++) {
+                codes.add(bic8 + random(random, ALPHANUMERIC, 2) + (char) ('0' + i % 10));
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Generates CSV content with the banks.csv header and quoting.
+     */
+    public static String csv(int rows, long seed) {
+        Random random = new Random(seed);
+        StringBuilder csv = new StringBuilder(rows * 120).append(CSV_HEADER).append('\n');
+        for (String swiftCode : swiftCodes(rows, seed)) {
+            String[] country = country(swiftCode);
+            String town = random(random, LETTERS, 8);
+            csv.append(country[0]).append(',')
+                    .append(swiftCode).append(",BIC11,")
+                    .append(bankName(swiftCode)).append(",\"")
+                    .append(random.nextInt(200)).append(' ').append(random(random, LETTERS, 10)).append("  ")
+                    .append(town).append(", ").append(town).append(", ").append(random.nextInt(100000)).append("\",")
+                    .append(town).append(',')
+                    .append(country[1]).append(',')
+                    .append(country[2]).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return ISO2 code, name and time zone of the country encoded in a generated SWIFT code
+     */
+    public static String[] country(String swiftCode) {
+        String iso2Code = swiftCode.substring(4, 6);
+        for (String[] country : COUNTRIES) {
+            if (country[0].equals(iso2Code)) {
+                return country;
+            }
+        }
+        throw new IllegalArgumentException("Not a generated SWIFT code: " + swiftCode);
+    }
+
+    public static String bankName(String swiftCode) {
+        return "BANK " + swiftCode.substring(0, 4) + " S.A.";
+    }
+
+    private static String random(Random random, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
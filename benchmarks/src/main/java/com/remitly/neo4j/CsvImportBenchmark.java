@@ -0,0 +1,113 @@
+package com.remitly.neo4j;
+
+import com.remitly.neo4j.swift.SwiftCode;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU side of {@link CsvImportService#importCsvData()}: reading banks.csv from disk and building the parameter map
+ * sent to Neo4j for each row, with {@link MappedCsvReader} and with the Commons CSV path it replaced. Scores are per
+ * whole file; run with {@code -prof gc} to compare the allocation per file as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    private static final CSVFormat COMMONS_FORMAT = CSVFormat.Builder.create().setHeader().setIgnoreHeaderCase(true)
+            .setTrim(true).build();
+
+    @Param({ "100000", "1000000" })
+    private int rows;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("banks-benchmark", ".csv");
+        Files.writeString(file, BenchmarkData.csv(rows, 42));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void commonsParseOnly(Blackhole blackhole) throws IOException {
+        try (Reader reader = new FileReader(file.toFile());
+                CSVParser parser = new CSVParser(reader, COMMONS_FORMAT)) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(record);
+            }
+        }
+    }
+
+    @Benchmark
+    public void commonsParseAndBuildRows(Blackhole blackhole) throws IOException {
+        try (Reader reader = new FileReader(file.toFile());
+                CSVParser parser = new CSVParser(reader, COMMONS_FORMAT)) {
+            for (CSVRecord record : parser) {
+                long packedSwiftCode = SwiftCode.encode(record.get("SWIFT CODE"));
+                blackhole.consume(commonsImportRow(record, packedSwiftCode));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedParseOnly(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            for (MappedCsvReader.Row row; (row = reader.next()) != null; ) {
+                blackhole.consume(row);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedParseAndBuildRows(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            CsvImportService.ImportColumns columns = CsvImportService.ImportColumns.of(reader);
+            for (MappedCsvReader.Row row; (row = reader.next()) != null; ) {
+                long packedSwiftCode = CsvImportService.packedSwiftCode(row, columns);
+                blackhole.consume(CsvImportService.toImportRow(row, columns, packedSwiftCode));
+            }
+        }
+    }
+
+    /**
+     * The row mapping of the Commons CSV path, producing the same map as {@link CsvImportService#toImportRow}.
+     */
+    private static Map<String, Object> commonsImportRow(CSVRecord csvRecord, long packedSwiftCode) {
+        String swiftCode = csvRecord.get("SWIFT CODE");
+        boolean isHeadquarters = SwiftCode.isHeadquarters(packedSwiftCode);
+
+        Map<String, Object> record = new HashMap<>();
+        record.put("swiftCode", swiftCode);
+        record.put("codeType", csvRecord.get("CODE TYPE"));
+        record.put("name", csvRecord.get("NAME"));
+        record.put("address", csvRecord.get("ADDRESS"));
+        record.put("town", csvRecord.get("TOWN NAME"));
+        record.put("countryName", csvRecord.get("COUNTRY NAME").toUpperCase());
+        record.put("iso2Code", csvRecord.get("COUNTRY ISO2 CODE").toUpperCase());
+        record.put("timeZone", csvRecord.get("TIME ZONE"));
+        record.put("bankType", isHeadquarters ? "HEADQUARTERS" : "BRANCH");
+        record.put("bic8", swiftCode.substring(0, SwiftCode.BIC8_LENGTH));
+        record.put("contentHash", CsvImportService.contentHash(record));
+        return record;
+    }
+}
@@ -0,0 +1,79 @@
+package com.remitly.neo4j.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.neo4j.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialisation of the response DTOs with an ObjectMapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "500" })
+    private int countrySize;
+
+    private ObjectMapper objectMapper;
+    private SwiftCodeDTO headquarters;
+    private CountrySwiftCodesDTO country;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<String> codes = BenchmarkData.swiftCodes(countrySize, 42);
+
+        headquarters = new SwiftCodeDTO();
+        headquarters.setAddress("ADDRESS OF " + codes.get(0));
+        headquarters.setBankName(BenchmarkData.bankName(codes.get(0)));
+        headquarters.setCountryISO2("PL");
+        headquarters.setCountryName("POLAND");
+        headquarters.setHeadquarter(true);
+        headquarters.setSwiftCode(codes.get(0));
+        List<SwiftCodeDTO.BranchDTO> branches = new ArrayList<>();
+        for (int i = 1; i <= BenchmarkData.BRANCHES_PER_HEADQUARTERS; i++) {
+            SwiftCodeDTO.BranchDTO branch = new SwiftCodeDTO.BranchDTO();
+            branch.setAddress("ADDRESS OF " + codes.get(i));
+            branch.setBankName(BenchmarkData.bankName(codes.get(i)));
+            branch.setCountryISO2("PL");
+            branch.setSwiftCode(codes.get(i));
+            branches.add(branch);
+        }
+        headquarters.setBranches(branches);
+
+        country = new CountrySwiftCodesDTO();
+        country.setCountryISO2("PL");
+        country.setCountryName("POLAND");
+        List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> summaries = new ArrayList<>();
+        for (String code : codes) {
+            CountrySwiftCodesDTO.SwiftCodeSummaryDTO summary = new CountrySwiftCodesDTO.SwiftCodeSummaryDTO();
+            summary.setAddress("ADDRESS OF " + code);
+            summary.setBankName(BenchmarkData.bankName(code));
+            summary.setCountryISO2("PL");
+            summary.setHeadquarter(code.endsWith("XXX"));
+            summary.setSwiftCode(code);
+            summaries.add(summary);
+        }
+        country.setSwiftCodes(summaries);
+    }
+
+    @Benchmark
+    public byte[] swiftCodeDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(headquarters);
+    }
+
+    @Benchmark
+    public byte[] countrySwiftCodes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(country);
+    }
+}
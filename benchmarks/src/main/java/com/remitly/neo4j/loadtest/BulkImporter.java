@@ -0,0 +1,96 @@
+package com.remitly.neo4j.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a banks.csv file into a running service through {@code POST /v1/swift-codes/bulk}, so an import can be
+ * repeated without restarting the service.
+ */
+class BulkImporter {
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int chunkSize;
+
+    BulkImporter(HttpClient client, ObjectMapper objectMapper, String baseUrl, int chunkSize) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.chunkSize = chunkSize;
+    }
+
+    void importFile(Path csvFile) throws IOException, InterruptedException {
+        long startTime = System.nanoTime();
+        long succeeded = 0;
+        long failed = 0;
+        int rows = 0;
+
+        try (Reader reader = Files.newBufferedReader(csvFile);
+                CSVParser parser = new CSVParser(reader,
+                        CSVFormat.Builder.create().setHeader().setIgnoreHeaderCase(true).setTrim(true).build())) {
+            List<Map<String, Object>> chunk = new ArrayList<>(chunkSize);
+            for (CSVRecord record : parser) {
+                chunk.add(toCreateRequest(record));
+                rows++;
+                if (chunk.size() == chunkSize) {
+                    JsonNode response = post(chunk);
+                    succeeded += response.get("succeeded").asLong();
+                    failed += response.get("failed").asLong();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                JsonNode response = post(chunk);
+                succeeded += response.get("succeeded").asLong();
+                failed += response.get("failed").asLong();
+            }
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Imported %d rows in %.2f s (%.0f rows/sec): %d created, %d failed%n", rows, seconds,
+                rows / seconds, succeeded, failed);
+    }
+
+    private JsonNode post(List<Map<String, Object>> chunk) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(chunk)))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Bulk import failed with HTTP " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Map<String, Object> toCreateRequest(CSVRecord record) {
+        String swiftCode = record.get("SWIFT CODE");
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("address", record.get("ADDRESS"));
+        item.put("bankName", record.get("NAME"));
+        item.put("countryISO2", record.get("COUNTRY ISO2 CODE"));
+        item.put("countryName", record.get("COUNTRY NAME"));
+        item.put("headquarter", swiftCode.endsWith("XXX"));
+        item.put("swiftCode", swiftCode);
+        return item;
+    }
+}
@@ -0,0 +1,176 @@
+package com.remitly.neo4j.loadtest;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes synthetic directories with the banks.csv layout.
+ * <p>
+ * Countries and bank names follow a Zipf distribution, so a few countries hold most banks and a few name words are
+ * very common, as in the real directory. Every bank gets a headquarters entry followed by a geometrically distributed
+ * number of branches. Location codes always start with a letter; {@link TrafficRunner} relies on that to create codes
+ * that never collide with generated ones.
+ */
+class DatasetGenerator {
+    static final String[] HEADER = { "COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME",
+            "COUNTRY NAME", "TIME ZONE" };
+
+    private static final String[][] COUNTRIES = { { "US", "UNITED STATES", "America/New_York" },
+            { "DE", "GERMANY", "Europe/Berlin" }, { "GB", "UNITED KINGDOM", "Europe/London" },
+            { "FR", "FRANCE", "Europe/Paris" }, { "IT", "ITALY", "Europe/Rome" }, { "ES", "SPAIN", "Europe/Madrid" },
+            { "PL", "POLAND", "Europe/Warsaw" }, { "JP", "JAPAN", "Asia/Tokyo" }, { "CN", "CHINA", "Asia/Shanghai" },
+            { "BR", "BRAZIL", "America/Sao_Paulo" }, { "IN", "INDIA", "Asia/Kolkata" },
+            { "CA", "CANADA", "America/Toronto" }, { "AU", "AUSTRALIA", "Australia/Sydney" },
+            { "CH", "SWITZERLAND", "Europe/Zurich" }, { "NL", "NETHERLANDS", "Europe/Amsterdam" },
+            { "SE", "SWEDEN", "Europe/Stockholm" }, { "MX", "MEXICO", "America/Mexico_City" },
+            { "CL", "CHILE", "Pacific/Easter" }, { "BG", "BULGARIA", "Europe/Sofia" },
+            { "LV", "LATVIA", "Europe/Riga" }, { "LT", "LITHUANIA", "Europe/Vilnius" },
+            { "MT", "MALTA", "Europe/Malta" }, { "MC", "MONACO", "Europe/Monaco" },
+            { "AL", "ALBANIA", "Europe/Tirane" }, { "UY", "URUGUAY", "America/Montevideo" },
+            { "AW", "ARUBA", "America/Aruba" }, { "PT", "PORTUGAL", "Europe/Lisbon" },
+            { "GR", "GREECE", "Europe/Athens" }, { "TR", "TURKEY", "Europe/Istanbul" },
+            { "ZA", "SOUTH AFRICA", "Africa/Johannesburg" } };
+
+    private static final String[] NAME_WORDS = { "NATIONAL", "COMMERCIAL", "FIRST", "UNITED", "CENTRAL", "SAVINGS",
+            "INVESTMENT", "TRUST", "CREDIT", "COOPERATIVE", "MERCHANT", "CITY", "AGRICULTURAL", "DEVELOPMENT", "EXPORT",
+            "POPULAR", "ROYAL", "CAPITAL", "PRIVATE", "INTERNATIONAL", "REGIONAL", "MUTUAL", "HERITAGE", "PIONEER" };
+    private static final String[] NAME_SUFFIXES = { "BANK", "BANK S.A.", "BANK LTD", "BANK PLC", "BANK AG",
+            "FINANCE LTD", "SECURITIES", "BANKING CORPORATION" };
+    private static final String[] STREETS = { "MAIN", "MARKET", "CHURCH", "STATION", "HIGH", "PARK", "BRIDGE", "MILL",
+            "KING", "QUEEN", "VICTORIA", "LIBERTY", "INDEPENDENCE", "CASTLE", "HARBOUR" };
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private final Random random;
+    private final int countries;
+    private final double branchesPerHeadquarters;
+    private final Zipf countryDistribution;
+    private final Zipf nameDistribution;
+
+    /**
+     * @param countries               Number of countries to spread banks over, at most the built-in list size
+     * @param branchesPerHeadquarters Mean number of branches per headquarters (banks.csv has about 0.5)
+     */
+    DatasetGenerator(long seed, int countries, double branchesPerHeadquarters) {
+        this.random = new Random(seed);
+        this.countries = Math.max(1, Math.min(countries, COUNTRIES.length));
+        this.branchesPerHeadquarters = branchesPerHeadquarters;
+        this.countryDistribution = new Zipf(this.countries, 1.0);
+        this.nameDistribution = new Zipf(NAME_WORDS.length, 1.2);
+    }
+
+    static int maxCountries() {
+        return COUNTRIES.length;
+    }
+
+    /**
+     * Writes {@code rows} records, headquarters before their branches.
+     *
+     * @return The number of headquarters written
+     */
+    int write(Writer writer, int rows) throws IOException {
+        Set<String> bic8s = new HashSet<>();
+        int headquarters = 0;
+        int written = 0;
+
+        try (CSVPrinter printer = new CSVPrinter(writer, CSVFormat.Builder.create().setHeader(HEADER).build())) {
+            while (written < rows) {
+                String[] country = COUNTRIES[countryDistribution.sample(random)];
+                String bic8;
+                do {
+                    bic8 = random(LETTERS, 4) + country[0] + random(LETTERS, 1) + random(ALPHANUMERIC, 1);
+                } while (!bic8s.add(bic8));
+
+                String name = bankName();
+                printer.printRecord(row(country, bic8 + "XXX", name));
+                headquarters++;
+                written++;
+
+                int branches = geometric(branchesPerHeadquarters);
+                Set<String> suffixes = new HashSet<>();
+                for (int i = 0; i < branches && written < rows; i++) {
+                    String suffix;
+                    do {
+                        suffix = random(ALPHANUMERIC, 3);
+                    } while (suffix.equals("XXX") || !suffixes.add(suffix));
+                    printer.printRecord(row(country, bic8 + suffix, name));
+                    written++;
+                }
+            }
+        }
+        return headquarters;
+    }
+
+    private Object[] row(String[] country, String swiftCode, String name) {
+        String town = random(LETTERS, 3 + random.nextInt(8));
+        String address = (1 + random.nextInt(250)) + " " + STREETS[random.nextInt(STREETS.length)] + " STREET  "
+                + town + ", " + town + ", " + (10000 + random.nextInt(90000));
+        return new Object[] { country[0], swiftCode, "BIC11", name, address, town, country[1], country[2] };
+    }
+
+    private String bankName() {
+        String name = NAME_WORDS[nameDistribution.sample(random)];
+        if (random.nextBoolean()) {
+            name += " " + NAME_WORDS[nameDistribution.sample(random)];
+        }
+        return name + " " + NAME_SUFFIXES[random.nextInt(NAME_SUFFIXES.length)];
+    }
+
+    // Number of failures before the first success, with the given mean
+    private int geometric(double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (1 + mean);
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private String random(String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+     */
+    static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.remitly.neo4j.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of latencies in nanoseconds for one operation type, written by a single thread. Recorders of all
+ * threads are merged after the run, and percentiles are read from the sorted samples, so they are exact.
+ */
+class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void recordError(long nanos) {
+        record(nanos);
+        errors++;
+    }
+
+    static Summary summarize(Iterable<LatencyRecorder> recorders, double seconds) {
+        int total = 0;
+        long errors = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+            errors += recorder.errors;
+        }
+
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(merged);
+
+        return new Summary(total, errors, total / seconds, percentile(merged, 0.50), percentile(merged, 0.99),
+                percentile(merged, 0.999), total == 0 ? 0 : merged[total - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    record Summary(long count, long errors, double throughput, double p50, double p99, double p999, double max) {
+    }
+}
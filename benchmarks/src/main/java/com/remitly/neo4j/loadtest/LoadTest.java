@@ -0,0 +1,174 @@
+package com.remitly.neo4j.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line entry point of the load test.
+ *
+ * <pre>
+ * generate --out=FILE [--rows=100000] [--countries=30] [--branches-per-hq=0.5] [--seed=1]
+ * import   --csv=FILE [--base-url=http://localhost:8080] [--chunk=5000]
+ * run      --csv=FILE [--base-url=...] [--threads=16] [--warmup=10] [--duration=60] [--rate=0]
+ *          [--mix=get:70,country:10,post:10,delete:10] [--out=results.json] [--keep-created]
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+
+        Map<String, String> options = parseOptions(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        switch (args[0]) {
+            case "generate" -> generate(options);
+            case "import" -> new BulkImporter(httpClient(), objectMapper, baseUrl(options),
+                    Integer.parseInt(options.getOrDefault("chunk", "5000")))
+                    .importFile(Path.of(required(options, "csv")));
+            case "run" -> run(options, objectMapper);
+            default -> usage();
+        }
+    }
+
+    private static void generate(Map<String, String> options) throws IOException {
+        Path out = Path.of(required(options, "out"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int countries = Integer.parseInt(options.getOrDefault("countries",
+                String.valueOf(DatasetGenerator.maxCountries())));
+        double branches = Double.parseDouble(options.getOrDefault("branches-per-hq", "0.5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+
+        try (Writer writer = Files.newBufferedWriter(out)) {
+            int headquarters = new DatasetGenerator(seed, countries, branches).write(writer, rows);
+            System.out.printf("Wrote %d rows (%d headquarters) to %s%n", rows, headquarters, out);
+        }
+    }
+
+    private static void run(Map<String, String> options, ObjectMapper objectMapper) throws Exception {
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        Map<TrafficRunner.Operation, Integer> mix = parseMix(
+                options.getOrDefault("mix", "get:70,country:10,post:10,delete:10"));
+
+        List<String> swiftCodes = new ArrayList<>();
+        Map<String, String> countries = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(Path.of(required(options, "csv")));
+                CSVParser parser = new CSVParser(reader,
+                        CSVFormat.Builder.create().setHeader().setIgnoreHeaderCase(true).setTrim(true).build())) {
+            for (CSVRecord record : parser) {
+                swiftCodes.add(record.get("SWIFT CODE"));
+                countries.put(record.get("COUNTRY ISO2 CODE").toUpperCase(), record.get("COUNTRY NAME").toUpperCase());
+            }
+        }
+
+        TrafficRunner runner = new TrafficRunner(httpClient(), objectMapper, baseUrl(options), swiftCodes, countries,
+                mix);
+        System.out.printf("Running %d threads for %d s after %d s warmup (%s, mix %s)%n", threads, duration, warmup,
+                rate > 0 ? String.format("%.0f req/s", rate) : "closed loop", mix);
+        TrafficRunner.Result result = runner.run(threads, warmup, duration, rate);
+
+        if (!options.containsKey("keep-created")) {
+            System.out.printf("Deleted %d codes created during the run%n", runner.cleanUp());
+        }
+
+        System.out.printf("%n%-8s %10s %8s %10s %10s %10s %10s %10s%n", "op", "count", "errors", "req/s", "p50 ms",
+                "p99 ms", "p999 ms", "max ms");
+        result.operations().forEach((operation, summary) -> print(operation.name(), summary));
+        print("TOTAL", result.total());
+
+        if (options.containsKey("out")) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("timestamp", Instant.now().toString());
+            report.put("options", new TreeMap<>(options));
+            Map<String, Object> operations = new LinkedHashMap<>();
+            result.operations().forEach((operation, summary) -> operations.put(operation.name(), summary));
+            report.put("operations", operations);
+            report.put("total", result.total());
+            objectMapper.writeValue(Path.of(options.get("out")).toFile(), report);
+        }
+    }
+
+    private static void print(String name, LatencyRecorder.Summary summary) {
+        System.out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, summary.count(),
+                summary.errors(), summary.throughput(), summary.p50(), summary.p99(), summary.p999(), summary.max());
+    }
+
+    private static Map<TrafficRunner.Operation, Integer> parseMix(String mix) {
+        Map<TrafficRunner.Operation, Integer> weights = new EnumMap<>(TrafficRunner.Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(TrafficRunner.Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty: " + mix);
+        }
+        return weights;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            int separator = args[i].indexOf('=');
+            if (separator < 0) {
+                options.put(args[i].substring(2), "true");
+            } else {
+                options.put(args[i].substring(2, separator), args[i].substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private static String baseUrl(Map<String, String> options) {
+        return options.getOrDefault("base-url", "http://localhost:8080");
+    }
+
+    private static HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private static void usage() {
+        System.out.println("Usage: LoadTest generate|import|run [--option=value ...]; see the README");
+    }
+}
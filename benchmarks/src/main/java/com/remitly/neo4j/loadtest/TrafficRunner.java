@@ -0,0 +1,268 @@
+package com.remitly.neo4j.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a mix of reads, creates and deletes against the SWIFT code endpoints from a fixed number of threads.
+ * <p>
+ * Without a target rate every thread sends its next request as soon as the previous one completes (closed loop).
+ * With a target rate, requests are scheduled at fixed intervals and latency is measured from the scheduled start, so
+ * time spent queued behind a slow response is included and the percentiles do not hide stalls.
+ * <p>
+ * Created codes use a location code starting with 0, which {@link DatasetGenerator} never produces, followed by the
+ * thread index as one base-36 character, and a branch suffix unique to the run, so at most 36 threads can run. Deletes
+ * remove codes created earlier in the run; whatever is left is deleted at the end.
+ */
+class TrafficRunner {
+    enum Operation {
+        GET, COUNTRY, POST, DELETE
+    }
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int MAX_THREADS = ALPHANUMERIC.length();
+    private static final int CLEANUP_CHUNK_SIZE = 1000;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<String> swiftCodes;
+    private final Map<String, String> countries;
+    private final List<String> countryCodes;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final String runSuffix;
+    private final ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param swiftCodes Existing codes to read
+     * @param countries  ISO2 code to country name of the existing countries
+     * @param mix        Relative weight of each operation
+     */
+    TrafficRunner(HttpClient client, ObjectMapper objectMapper, String baseUrl, List<String> swiftCodes,
+            Map<String, String> countries, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.swiftCodes = swiftCodes;
+        this.countries = countries;
+        this.countryCodes = new ArrayList<>(countries.keySet());
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        String suffix;
+        Random random = new Random();
+        do {
+            suffix = random(random, ALPHANUMERIC, 3);
+        } while (suffix.equals("XXX"));
+        this.runSuffix = suffix;
+    }
+
+    record Result(Map<Operation, LatencyRecorder.Summary> operations, LatencyRecorder.Summary total) {
+    }
+
+    /**
+     * @param rate Target requests per second over all threads, or 0 for a closed loop
+     * @return Summary per operation and over all operations, measured after the warmup
+     */
+    Result run(int threads, int warmupSeconds, int durationSeconds, double rate)
+            throws InterruptedException {
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException("Threads must be between 1 and " + MAX_THREADS + ": " + threads);
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + durationSeconds * 1_000_000_000L;
+        long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+
+        List<Map<Operation, LatencyRecorder>> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Map<Operation, LatencyRecorder> threadRecorders = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                threadRecorders.put(operation, new LatencyRecorder());
+            }
+            recorders.add(threadRecorders);
+
+            int threadIndex = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    runThread(threadIndex, threadRecorders, start + threadIndex * interval / threads, measureFrom, end,
+                            interval);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        Map<Operation, LatencyRecorder.Summary> summaries = new EnumMap<>(Operation.class);
+        List<LatencyRecorder> all = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            List<LatencyRecorder> perOperation = new ArrayList<>();
+            recorders.forEach(threadRecorders -> perOperation.add(threadRecorders.get(operation)));
+            all.addAll(perOperation);
+            if (mix.containsKey(operation)) {
+                summaries.put(operation, LatencyRecorder.summarize(perOperation, durationSeconds));
+            }
+        }
+        return new Result(summaries, LatencyRecorder.summarize(all, durationSeconds));
+    }
+
+    /**
+     * Deletes the codes created by the run that were not deleted by the traffic itself.
+     *
+     * @return The number of codes deleted
+     */
+    int cleanUp() throws IOException, InterruptedException {
+        List<String> remaining = new ArrayList<>(created);
+        created.clear();
+        for (int from = 0; from < remaining.size(); from += CLEANUP_CHUNK_SIZE) {
+            List<String> chunk = remaining.subList(from, Math.min(from + CLEANUP_CHUNK_SIZE, remaining.size()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes/bulk-delete"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(chunk)))
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+        return remaining.size();
+    }
+
+    private void runThread(int threadIndex, Map<Operation, LatencyRecorder> recorders, long firstStart,
+            long measureFrom, long end, long interval) {
+        Random random = new Random(threadIndex);
+        long scheduled = firstStart;
+        int createdCount = 0;
+
+        while (true) {
+            long intendedStart;
+            if (interval > 0) {
+                scheduled += interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                intendedStart = scheduled;
+            } else {
+                intendedStart = System.nanoTime();
+            }
+            if (intendedStart >= end) {
+                return;
+            }
+
+            Operation operation = pick(random);
+            String deleteCode = null;
+            if (operation == Operation.DELETE) {
+                deleteCode = created.poll();
+                if (deleteCode == null) {
+                    operation = Operation.POST; // nothing to delete yet
+                }
+            }
+
+            boolean ok;
+            try {
+                ok = switch (operation) {
+                    case GET -> send(get("/v1/swift-codes/" + swiftCodes.get(random.nextInt(swiftCodes.size()))));
+                    case COUNTRY -> send(get("/v1/swift-codes/country/"
+                            + countryCodes.get(random.nextInt(countryCodes.size()))));
+                    case POST -> create(threadIndex, createdCount++, random);
+                    case DELETE -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes/" + deleteCode))
+                            .DELETE().build());
+                };
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long latency = System.nanoTime() - intendedStart;
+            if (intendedStart >= measureFrom) {
+                if (ok) {
+                    recorders.get(operation).record(latency);
+                } else {
+                    recorders.get(operation).recordError(latency);
+                }
+            }
+        }
+    }
+
+    private boolean create(int threadIndex, int sequence, Random random) throws IOException, InterruptedException {
+        String iso2Code = countryCodes.get(random.nextInt(countryCodes.size()));
+        String swiftCode = sequenceLetters(sequence) + iso2Code + "0" + ALPHANUMERIC.charAt(threadIndex)
+                + runSuffix;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("address", "1 LOAD TEST STREET");
+        body.put("bankName", "LOAD TEST BANK");
+        body.put("countryISO2", iso2Code);
+        body.put("countryName", countries.get(iso2Code));
+        body.put("headquarter", false);
+        body.put("swiftCode", swiftCode);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        boolean ok = send(request);
+        if (ok) {
+            created.add(swiftCode);
+        }
+        return ok;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private boolean send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status >= 200 && status < 300;
+    }
+
+    private Operation pick(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    // Bank code of the n-th code created by a thread
+    private static String sequenceLetters(int sequence) {
+        char[] chars = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            chars[i] = LETTERS.charAt(sequence % 26);
+            sequence /= 26;
+        }
+        return new String(chars);
+    }
+
+    private static String random(Random random, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
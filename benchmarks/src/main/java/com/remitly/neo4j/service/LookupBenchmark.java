@@ -0,0 +1,114 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.RemitlySwiftCodeApplication;
+import com.remitly.neo4j.dto.BatchLookupResponseDTO;
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against a running Neo4j that already holds an imported directory, e.g. the one started
+ * by docker-compose. The application context is started without the web server and without the CSV import; the
+ * database is chosen with {@code -jvmArgsAppend "-Dneo4j.uri=... -Dneo4j.user=... -Dneo4j.password=..."}.
+ * <p>
+ * {@code readSource} runs every benchmark once with reads going to Neo4j and once served by {@link SwiftDirectory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({ "neo4j", "memory" })
+    private String readSource;
+
+    private ConfigurableApplicationContext context;
+    private SwiftCodeService swiftCodeService;
+    private SwiftCodeCache swiftCodeCache;
+    private List<String> swiftCodes;
+    private List<String> countries;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(RemitlySwiftCodeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--IMPORT_CSV_ON_STARTUP=false", "--api.read-source=" + readSource,
+                        "--logging.level.com.remitly=WARN");
+        swiftCodeService = context.getBean(SwiftCodeService.class);
+        swiftCodeCache = context.getBean(SwiftCodeCache.class);
+
+        try (Session session = context.getBean(Driver.class).session()) {
+            swiftCodes = session.run("MATCH (b:Bank) RETURN b.swiftCode as swiftCode ORDER BY swiftCode LIMIT 1000")
+                    .list(record -> record.get("swiftCode").asString());
+            countries = session.run("MATCH (c:Country) RETURN c.iso2Code as iso2Code ORDER BY iso2Code")
+                    .list(record -> record.get("iso2Code").asString());
+        }
+        if (swiftCodes.size() < BATCH_SIZE) {
+            throw new IllegalStateException("Neo4j holds " + swiftCodes.size() + " banks; import the directory first");
+        }
+
+        // details measures cache hits; detailsUncached evicts before every call
+        swiftCodes.forEach(swiftCodeService::getSwiftCodeDetails);
+
+        if ("memory".equals(readSource)) {
+            SwiftDirectory directory = context.getBean(SwiftDirectory.class);
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (directory.current() == null) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("In-memory directory was not loaded within a minute");
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int size) {
+            next = (next + 1) % size;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public SwiftCodeDTO details(Cursor cursor) {
+        return swiftCodeService.getSwiftCodeDetails(swiftCodes.get(cursor.next(swiftCodes.size())));
+    }
+
+    @Benchmark
+    public SwiftCodeDTO detailsUncached(Cursor cursor) {
+        String swiftCode = swiftCodes.get(cursor.next(swiftCodes.size()));
+        swiftCodeCache.invalidate(swiftCode);
+        return swiftCodeService.getSwiftCodeDetails(swiftCode);
+    }
+
+    @Benchmark
+    public CountrySwiftCodesDTO countryPage(Cursor cursor) {
+        return swiftCodeService.getSwiftCodesByCountry(countries.get(cursor.next(countries.size())), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BatchLookupResponseDTO batchLookup(Cursor cursor) {
+        int from = cursor.next(swiftCodes.size() - BATCH_SIZE);
+        return swiftCodeService.batchLookup(swiftCodes.subList(from, from + BATCH_SIZE), false);
+    }
+}
@@ -0,0 +1,97 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.BenchmarkData;
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of query results to response DTOs in {@link SwiftCodeQueries}, compared with building the same DTOs from
+ * a {@link SwiftDirectorySnapshot}. Records are built with the driver's record and node classes, as the driver does
+ * when decoding a Bolt response, so no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({ "500" })
+    private int countrySize;
+
+    private String headquarters;
+    private Record detailsRecord;
+    private List<Record> countryRecords;
+    private SwiftDirectorySnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        List<String> codes = BenchmarkData.swiftCodes(countrySize, 42);
+        headquarters = codes.get(0);
+        Value country = new NodeValue(new InternalNode(0, List.of("Country"),
+                Map.of("iso2Code", Values.value("PL"), "name", Values.value("POLAND"))));
+
+        // A headquarters with its branches, as returned by SwiftCodeQueries.DETAILS_QUERY
+        List<Value> branches = new ArrayList<>();
+        for (int i = 1; i <= BenchmarkData.BRANCHES_PER_HEADQUARTERS; i++) {
+            branches.add(Values.value(Map.of("branch", bank(i, codes.get(i)), "countryISO2", Values.value("PL"))));
+        }
+        detailsRecord = new InternalRecord(List.of("b", "c", "isHeadquarter", "branches"), new Value[] {
+                bank(0, headquarters), country, Values.value(true), Values.value(branches) });
+
+        // One row per bank of a country, as returned by SwiftCodeQueries.COUNTRY_QUERY
+        countryRecords = new ArrayList<>(codes.size());
+        for (int i = 0; i < codes.size(); i++) {
+            countryRecords.add(new InternalRecord(List.of("c", "b", "isHeadquarter"), new Value[] { country,
+                    bank(i, codes.get(i)), Values.value(codes.get(i).endsWith("XXX")) }));
+        }
+
+        SwiftDirectorySnapshot.Builder builder = new SwiftDirectorySnapshot.Builder();
+        builder.addCountry("PL", "POLAND");
+        for (String code : codes) {
+            boolean isHeadquarters = code.endsWith("XXX");
+            builder.addBank(code, BenchmarkData.bankName(code), "ADDRESS OF " + code, "PL", isHeadquarters,
+                    isHeadquarters ? null : code.substring(0, 8) + "XXX");
+        }
+        snapshot = builder.build(0);
+    }
+
+    @Benchmark
+    public SwiftCodeDTO detailsFromRecord() {
+        return SwiftCodeQueries.toDetails(detailsRecord, headquarters);
+    }
+
+    @Benchmark
+    public SwiftCodeDTO detailsFromSnapshot() {
+        return snapshot.details(headquarters, true);
+    }
+
+    @Benchmark
+    public CountrySwiftCodesDTO countryFromRecords() {
+        return SwiftCodeQueries.toCountryDTO(countryRecords.iterator(), "PL", Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public CountrySwiftCodesDTO countryFromSnapshot() {
+        return snapshot.country("PL", null, null, Integer.MAX_VALUE);
+    }
+
+    private static Value bank(long id, String swiftCode) {
+        return new NodeValue(new InternalNode(id, List.of("Bank"),
+                Map.of("swiftCode", Values.value(swiftCode), "name", Values.value(BenchmarkData.bankName(swiftCode)),
+                        "address", Values.value("ADDRESS OF " + swiftCode))));
+    }
+}
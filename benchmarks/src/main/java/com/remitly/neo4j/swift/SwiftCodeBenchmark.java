@@ -0,0 +1,110 @@
+package com.remitly.neo4j.swift;
+
+import com.remitly.neo4j.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * String keys against packed {@link SwiftCode} keys. Run with {@code -prof gc} to see the allocation per operation.
+ * Scores are per pass over all codes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwiftCodeBenchmark {
+    // The validation SwiftCodeCreateDTO used before @ValidSwiftCode
+    private static final Pattern SWIFT_CODE_PATTERN = Pattern.compile("^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$");
+
+    @Param({ "10000" })
+    private int size;
+
+    private String[] codes;
+    private long[] packedCodes;
+    private Map<String, String> stringMap;
+    private LongObjectMap<String> longMap;
+
+    @Setup
+    public void setUp() {
+        List<String> generated = BenchmarkData.swiftCodes(size, 42);
+        codes = new String[generated.size()];
+        packedCodes = new long[generated.size()];
+        stringMap = new HashMap<>();
+        longMap = new LongObjectMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            // Copy the strings so map lookups compare contents instead of short-circuiting on identity
+            codes[i] = new String(generated.get(i).toCharArray());
+            packedCodes[i] = SwiftCode.encode(codes[i]);
+            stringMap.put(generated.get(i), generated.get(i));
+            longMap.put(packedCodes[i], generated.get(i));
+        }
+    }
+
+    @Benchmark
+    public void validateWithPattern(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(SWIFT_CODE_PATTERN.matcher(code).matches());
+        }
+    }
+
+    @Benchmark
+    public void validateWithEncode(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(SwiftCode.encode(code));
+        }
+    }
+
+    @Benchmark
+    public void headquartersOfString(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(code.substring(0, 8) + "XXX");
+        }
+    }
+
+    @Benchmark
+    public void headquartersOfPacked(Blackhole blackhole) {
+        for (long code : packedCodes) {
+            blackhole.consume(SwiftCode.headquarters(code));
+        }
+    }
+
+    @Benchmark
+    public void lookupStringKeys(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(stringMap.get(code));
+        }
+    }
+
+    @Benchmark
+    public void lookupPackedKeys(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(longMap.get(SwiftCode.encode(code)));
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> buildStringMap() {
+        Map<String, String> map = new HashMap<>();
+        for (String code : codes) {
+            map.put(code, code);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongObjectMap<String> buildLongMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            map.put(packedCodes[i], codes[i]);
+        }
+        return map;
+    }
+}
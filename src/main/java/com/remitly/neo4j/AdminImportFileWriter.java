@@ -0,0 +1,150 @@
+package com.remitly.neo4j;
+
+import com.remitly.neo4j.swift.LongObjectMap;
+import com.remitly.neo4j.swift.SwiftCode;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts a banks.csv file into the node and relationship files of {@code neo4j-admin database import full}.
+ * <p>
+ * The files hold the same graph that {@link CsvImportService} builds transactionally: Country and Bank nodes with the
+ * same properties (including the content hash used by the sync), LOCATED_IN, and BRANCH_OF computed here from the
+ * BIC8 prefixes. Like the transactional import, rows with an invalid SWIFT code are skipped; of several rows with the
+ * same code the first one is kept, since the offline importer rejects duplicate node ids.
+ * <p>
+ * Run from the application jar, without a Spring context or a database:
+ * {@code java -jar app.jar admin-import-files [--csv=banks.csv] [--out=import]}
+ */
+class AdminImportFileWriter {
+    private static final Logger log = LoggerFactory.getLogger(AdminImportFileWriter.class);
+
+    static final String COMMAND = "admin-import-files";
+
+    static final String COUNTRIES_FILE = "countries.csv";
+    static final String BANKS_FILE = "banks.csv";
+    static final String LOCATED_IN_FILE = "located_in.csv";
+    static final String BRANCH_OF_FILE = "branch_of.csv";
+
+    private static final CSVFormat COUNTRY_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("iso2Code:ID(Country)", "name", "timeZone", ":LABEL").build();
+    private static final CSVFormat BANK_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("swiftCode:ID(Bank)", "codeType", "name", "address", "town", "type", "bic8",
+                    "contentHash:long", ":LABEL").build();
+    private static final CSVFormat LOCATED_IN_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader(":START_ID(Bank)", ":END_ID(Country)", ":TYPE").build();
+    private static final CSVFormat BRANCH_OF_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader(":START_ID(Bank)", ":END_ID(Bank)", ":TYPE").build();
+
+    static void run(String[] args) throws IOException {
+        Path csv = Path.of(System.getenv().getOrDefault("CSV_FILE_PATH", "banks.csv"));
+        Path out = Path.of("import");
+        for (String arg : args) {
+            if (arg.startsWith("--csv=")) {
+                csv = Path.of(arg.substring("--csv=".length()));
+            } else if (arg.startsWith("--out=")) {
+                out = Path.of(arg.substring("--out=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected --csv=<file> or --out=<dir>");
+            }
+        }
+        write(csv, out);
+    }
+
+    /**
+     * Writes {@link #COUNTRIES_FILE}, {@link #BANKS_FILE}, {@link #LOCATED_IN_FILE} and {@link #BRANCH_OF_FILE} to the
+     * output directory, replacing existing files.
+     */
+    static void write(Path csv, Path outputDirectory) throws IOException {
+        long startTime = System.nanoTime();
+        Files.createDirectories(outputDirectory);
+
+        Map<String, Map<String, Object>> countries = new LinkedHashMap<>();
+        // Every written code, and the headquarters per packed BIC8 prefix, for BRANCH_OF
+        LongObjectMap<String> swiftCodes = new LongObjectMap<>();
+        LongObjectMap<String> headquarters = new LongObjectMap<>();
+        int totalCount = 0;
+        int skippedCount = 0;
+        int duplicateCount = 0;
+
+        try (MappedCsvReader csvReader = new MappedCsvReader(csv);
+                CSVPrinter banks = printer(outputDirectory, BANKS_FILE, BANK_FORMAT);
+                CSVPrinter locatedIn = printer(outputDirectory, LOCATED_IN_FILE, LOCATED_IN_FORMAT)) {
+
+            CsvImportService.ImportColumns columns = CsvImportService.ImportColumns.of(csvReader);
+            for (MappedCsvReader.Row csvRow; (csvRow = csvReader.next()) != null; ) {
+                totalCount++;
+
+                long packedSwiftCode = CsvImportService.packedSwiftCode(csvRow, columns);
+                if (packedSwiftCode == SwiftCode.INVALID) {
+                    skippedCount++;
+                    continue;
+                }
+                if (swiftCodes.containsKey(packedSwiftCode)) {
+                    duplicateCount++;
+                    continue;
+                }
+
+                Map<String, Object> row = CsvImportService.toImportRow(csvRow, columns, packedSwiftCode);
+                String swiftCode = (String) row.get("swiftCode");
+                swiftCodes.put(packedSwiftCode, swiftCode);
+                countries.putIfAbsent((String) row.get("iso2Code"), row);
+                if (SwiftCode.isHeadquarters(packedSwiftCode)) {
+                    headquarters.put(SwiftCode.bic8(packedSwiftCode), swiftCode);
+                }
+
+                banks.printRecord(swiftCode, row.get("codeType"), row.get("name"), row.get("address"),
+                        row.get("town"), row.get("bankType"), row.get("bic8"), row.get("contentHash"), "Bank");
+                locatedIn.printRecord(swiftCode, row.get("iso2Code"), "LOCATED_IN");
+            }
+        }
+
+        try (CSVPrinter printer = printer(outputDirectory, COUNTRIES_FILE, COUNTRY_FORMAT)) {
+            for (Map.Entry<String, Map<String, Object>> country : countries.entrySet()) {
+                printer.printRecord(country.getKey(), country.getValue().get("countryName"),
+                        country.getValue().get("timeZone"), "Country");
+            }
+        }
+
+        int[] branchCount = new int[1];
+        try (CSVPrinter printer = printer(outputDirectory, BRANCH_OF_FILE, BRANCH_OF_FORMAT)) {
+            swiftCodes.forEach((packedSwiftCode, swiftCode) -> {
+                if (SwiftCode.isHeadquarters(packedSwiftCode)) {
+                    return;
+                }
+                String hqSwiftCode = headquarters.get(SwiftCode.bic8(packedSwiftCode));
+                if (hqSwiftCode != null) {
+                    try {
+                        printer.printRecord(swiftCode, hqSwiftCode, "BRANCH_OF");
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to write " + BRANCH_OF_FILE, e);
+                    }
+                    branchCount[0]++;
+                }
+            });
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        log.info("Wrote {} countries, {} banks and {} branch relationships from {} records to {} in {} s",
+                countries.size(), swiftCodes.size(), branchCount[0], totalCount, outputDirectory,
+                String.format("%.2f", seconds));
+        if (skippedCount > 0) {
+            log.warn("Skipped {} records with invalid SWIFT codes", skippedCount);
+        }
+        if (duplicateCount > 0) {
+            log.warn("Skipped {} records repeating an earlier SWIFT code", duplicateCount);
+        }
+    }
+
+    private static CSVPrinter printer(Path outputDirectory, String fileName, CSVFormat format) throws IOException {
+        return new CSVPrinter(Files.newBufferedWriter(outputDirectory.resolve(fileName)), format);
+    }
+}
@@ -0,0 +1,27 @@
+package com.remitly.neo4j;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code csvImport} as DOWN while the startup import is pending or running, and after it failed, so that the
+ * readiness probe at {@code /actuator/health/readiness} only passes once the directory is complete.
+ */
+@Component
+public class CsvImportHealthIndicator implements HealthIndicator {
+
+    private final ImportProgress importProgress;
+
+    public CsvImportHealthIndicator(ImportProgress importProgress) {
+        this.importProgress = importProgress;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = importProgress.isRunning() || importProgress.getState() == ImportProgress.State.FAILED
+                ? Health.down()
+                : Health.up();
+        return builder.withDetails(importProgress.snapshot()).build();
+    }
+}
@@ -1,108 +1,544 @@
 package com.remitly.neo4j;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import com.remitly.neo4j.service.ChangeFeedService;
+import com.remitly.neo4j.service.ChangeLog;
+import com.remitly.neo4j.service.DatasetVersion;
+import com.remitly.neo4j.service.SwiftCodeCache;
+import com.remitly.neo4j.service.SwiftDirectory;
+import com.remitly.neo4j.swift.LongObjectMap;
+import com.remitly.neo4j.swift.SwiftCode;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.exceptions.Neo4jException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class CsvImportService {
     private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
     private static final String CSV_FILE_PATH = System.getenv().getOrDefault("CSV_FILE_PATH", "banks.csv");
+    private static final int BATCH_SIZE = Integer.parseInt(System.getenv().getOrDefault("IMPORT_BATCH_SIZE", "1000"));
+    private static final int WRITER_THREADS = Integer.parseInt(System.getenv().getOrDefault("IMPORT_WRITER_THREADS", "4"));
+    private static final int QUEUE_CAPACITY = Integer.parseInt(System.getenv().getOrDefault("IMPORT_QUEUE_CAPACITY", "2"));
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(
+            Long.parseLong(System.getenv().getOrDefault("IMPORT_CHECKPOINT_INTERVAL_SECONDS", "2")));
+    private static final boolean SYNC_MODE = "sync".equalsIgnoreCase(System.getenv().getOrDefault("IMPORT_MODE", "initial"));
+
+    /**
+     * Writes a whole batch in a single statement, so Bank and LOCATED_IN are merged in one round trip instead of one
+     * per node. Countries are created beforehand by {@link ImportBatchWriter}.
+     */
+    private static final String IMPORT_BATCH_QUERY = "UNWIND $rows AS row "
+            + "MATCH (c:Country {iso2Code: row.iso2Code}) "
+            + "MERGE (b:Bank {swiftCode: row.swiftCode}) "
+            + "ON CREATE SET b.codeType = row.codeType, b.name = row.name, "
+            + "b.address = row.address, b.town = row.town, b.type = row.bankType, b.bic8 = row.bic8, "
+            + "b.contentHash = row.contentHash "
+            + "MERGE (b)-[:LOCATED_IN]->(c)";
+
+    /**
+     * Upserts new and changed rows of a sync. Unlike {@link #IMPORT_BATCH_QUERY} it overwrites the properties of an
+     * existing Bank and moves its LOCATED_IN relationship when the country changed.
+     */
+    private static final String SYNC_BATCH_QUERY = "UNWIND $rows AS row "
+            + "MATCH (c:Country {iso2Code: row.iso2Code}) "
+            + "MERGE (b:Bank {swiftCode: row.swiftCode}) "
+            + "SET b.codeType = row.codeType, b.name = row.name, "
+            + "b.address = row.address, b.town = row.town, b.type = row.bankType, b.bic8 = row.bic8, "
+            + "b.contentHash = row.contentHash "
+            + "WITH b, c "
+            + "OPTIONAL MATCH (b)-[moved:LOCATED_IN]->(other:Country) WHERE other <> c "
+            + "DELETE moved "
+            // The change is recorded for the new country only; the old one falls back to the global version
+            + "REMOVE other.changeSequence, other.changedAt "
+            + "MERGE (b)-[:LOCATED_IN]->(c)";
+
+    private static final String CHECKPOINT_ID = "csv";
+    private static final String CHECKPOINT_RUNNING = "RUNNING";
+    private static final String CHECKPOINT_COMPLETED = "COMPLETED";
+
+    private static final String LOAD_CHECKPOINT_QUERY = "MATCH (cp:ImportCheckpoint {id: $id}) "
+            + "RETURN cp.checksum AS checksum, cp.recordNumber AS recordNumber, cp.status AS status";
+
+    private static final String SAVE_CHECKPOINT_QUERY = "MERGE (cp:ImportCheckpoint {id: $id}) "
+            + "SET cp.file = $file, cp.checksum = $checksum, cp.recordNumber = $recordNumber, cp.status = $status, "
+            + "cp.updatedAt = datetime()";
+
+    // Never moves the checkpoint backwards: writer threads may report their watermarks out of order
+    private static final String ADVANCE_CHECKPOINT_QUERY = "MATCH (cp:ImportCheckpoint {id: $id}) "
+            + "WHERE cp.status = 'RUNNING' AND cp.checksum = $checksum AND cp.recordNumber < $recordNumber "
+            + "SET cp.recordNumber = $recordNumber, cp.updatedAt = datetime()";
+
+    /**
+     * Import state kept in the database next to the data it describes: the CRC32C of the file and the record number
+     * up to which every row has been committed.
+     */
+    private record Checkpoint(long checksum, long recordNumber, String status) {
+    }
+
+    private static final String[] HASHED_FIELDS = { "codeType", "name", "address", "town", "countryName", "iso2Code",
+            "timeZone" };
+
+    private static final String IMPORTED_HASHES_QUERY = "MATCH (b:Bank) WHERE b.contentHash IS NOT NULL "
+            + "RETURN b.swiftCode AS swiftCode, b.contentHash AS contentHash";
+
+    // Only imported banks carry a content hash; banks created through the API are never removed by a sync. The
+    // country is returned for the change log.
+    private static final String DELETE_REMOVED_QUERY = "UNWIND $swiftCodes AS swiftCode "
+            + "MATCH (b:Bank {swiftCode: swiftCode}) WHERE b.contentHash IS NOT NULL "
+            + "OPTIONAL MATCH (b)-[:LOCATED_IN]->(c:Country) "
+            + "WITH b, swiftCode, c.iso2Code AS iso2Code "
+            + "DETACH DELETE b "
+            + "RETURN swiftCode, iso2Code";
+
+    /**
+     * Fills the BIC8 prefix of banks imported before it was stored, one batch per transaction.
+     */
+    private static final String BACKFILL_BIC8_QUERY = "MATCH (b:Bank) WHERE b.bic8 IS NULL "
+            + "WITH b LIMIT $limit "
+            + "SET b.bic8 = substring(b.swiftCode, 0, 8) "
+            + "RETURN count(b) AS updated";
+
+    /**
+     * Links every branch sharing the BIC8 prefix of a headquarters through the bank_bic8 index, so each
+     * headquarters costs one index seek instead of a scan over all banks.
+     */
+    private static final String LINK_BRANCHES_QUERY = "UNWIND $headquarters AS hqSwiftCode "
+            + "MATCH (hq:Bank {swiftCode: hqSwiftCode}) "
+            + "MATCH (branch:Bank {bic8: hq.bic8}) "
+            + "WHERE branch.type = 'BRANCH' "
+            + "MERGE (branch)-[:BRANCH_OF]->(hq)";
 
     @Autowired
     private Driver neo4jDriver;
 
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftDirectory swiftDirectory;
+
+    @Autowired
+    private ImportProgress importProgress;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * Imports the CSV file on startup.
+     * <p>
+     * A new import is only started on an empty database. An import that was interrupted (crash, restart, lost
+     * connection) has left a RUNNING checkpoint behind: it is resumed after the last record known to be committed when
+     * the file is unchanged, and otherwise the database is synchronized with the new file. A database that already
+     * holds banks and no unfinished import is synchronized with {@code IMPORT_MODE=sync} and left alone otherwise.
+     */
     public void importCsvData() {
         log.info("Starting CSV data import");
 
-        if (dataExists()) {
-            log.info("Data already exists in the database. Skipping import.");
-            return;
+        try {
+            // Always ensure the schema: SwiftCodeService relies on the unique constraints to reject duplicate creates
+            createConstraints();
+
+            Path csvFile = Path.of(CSV_FILE_PATH);
+            Checkpoint checkpoint = loadCheckpoint();
+            if (checkpoint != null && !CHECKPOINT_COMPLETED.equals(checkpoint.status())) {
+                long checksum = checksum(csvFile);
+                if (checkpoint.checksum() == checksum) {
+                    log.info("Resuming the interrupted import of {} after record {}", csvFile,
+                            checkpoint.recordNumber());
+                    importRows(csvFile, checksum, checkpoint.recordNumber());
+                } else {
+                    log.warn("The interrupted import was started from a different file; synchronizing instead");
+                    syncCsvData();
+                    saveCheckpoint(csvFile, checksum, 0, CHECKPOINT_COMPLETED);
+                }
+            } else if (dataExists()) {
+                if (SYNC_MODE) {
+                    syncCsvData();
+                } else {
+                    log.info("Data already exists in the database. Skipping import.");
+                    importProgress.skipped("Data already exists in the database");
+                }
+            } else {
+                importRows(csvFile, checksum(csvFile), 0);
+            }
+        } catch (RuntimeException e) {
+            importProgress.failed(e);
+            throw e;
         }
+    }
 
-        createConstraints();
-
-        try (Reader reader = new FileReader(CSV_FILE_PATH);
-                CSVParser csvParser = new CSVParser(reader,
-                        CSVFormat.Builder.create().setHeader().setIgnoreHeaderCase(true).setTrim(true).build())) {
-
-            int batchSize = 100;
-            int recordCount = 0;
+    /**
+     * Runs the transactional import into a database without banks, or without the banks after {@code resumeAfter}.
+     * <p>
+     * Rows up to {@code resumeAfter} are parsed but not written again; their headquarters are still collected, since
+     * branches written after the resume point may belong to them. The checkpoint is advanced from the writer threads
+     * at most every {@code IMPORT_CHECKPOINT_INTERVAL_SECONDS}. Rather than one change per row, the import appends a
+     * single RELOADED change to the {@link ChangeLog} once it is complete; until then {@link DatasetVersion} is
+     * suspended, so no client is told that its copy is current.
+     */
+    private void importRows(Path csvFile, long checksum, long resumeAfter) {
+        saveCheckpoint(csvFile, checksum, resumeAfter, CHECKPOINT_RUNNING);
+        datasetVersion.suspend();
+
+        try (MappedCsvReader csvReader = new MappedCsvReader(csvFile);
+                ImportBatchWriter writer = new ImportBatchWriter(neo4jDriver, List.of(IMPORT_BATCH_QUERY),
+                        BATCH_SIZE, WRITER_THREADS, QUEUE_CAPACITY, Threading.VIRTUAL.isActive(environment),
+                        new Checkpointer(checksum))) {
+
+            importProgress.start(resumeAfter > 0 ? "resume" : "full", csvFile.toString(), csvReader.size(),
+                    resumeAfter);
+            long startTime = System.nanoTime();
             int totalCount = 0;
+            int skippedCount = 0;
 
-            Set<String> countries = new HashSet<>();
-            Map<String, Map<String, Object>> records = new HashMap<>();
-            Map<String, String> headquarters = new HashMap<>();
+            // Keyed by packed SWIFT code, so a duplicate headquarters row is linked once
+            LongObjectMap<String> headquarters = new LongObjectMap<>();
 
-            for (CSVRecord csvRecord : csvParser) {
-                recordCount++;
+            ImportColumns columns = ImportColumns.of(csvReader);
+            for (MappedCsvReader.Row row; (row = csvReader.next()) != null; ) {
                 totalCount++;
+                importProgress.recordRead(csvReader.bytesRead());
 
-                String iso2Code = csvRecord.get("COUNTRY ISO2 CODE").toUpperCase();
-                String swiftCode = csvRecord.get("SWIFT CODE");
-                String codeType = csvRecord.get("CODE TYPE");
+                long packedSwiftCode = packedSwiftCode(row, columns);
+                if (packedSwiftCode == SwiftCode.INVALID) {
+                    skippedCount++;
+                    continue;
+                }
 
-                boolean isHeadquarters = swiftCode.endsWith("XXX");
-                String bankType = isHeadquarters ? "HEADQUARTERS" : "BRANCH";
+                if (SwiftCode.isHeadquarters(packedSwiftCode)) {
+                    headquarters.put(packedSwiftCode, SwiftCode.decode(packedSwiftCode));
+                }
 
-                if (isHeadquarters) {
-                    String bic8 = swiftCode.substring(0, 8);
-                    headquarters.put(bic8, swiftCode);
+                if (row.number() > resumeAfter) {
+                    Map<String, Object> record = toImportRow(row, columns, packedSwiftCode);
+                    writer.add(SwiftCode.bic8(packedSwiftCode), packedSwiftCode, row.number(), record);
                 }
+            }
 
-                countries.add(iso2Code);
+            importProgress.parsed();
+            writer.finish();
+            saveCheckpoint(csvFile, checksum, totalCount, CHECKPOINT_RUNNING);
+            importProgress.checkpointed(totalCount);
 
-                Map<String, Object> record = new HashMap<>();
-                record.put("swiftCode", swiftCode);
-                record.put("codeType", codeType);
-                record.put("name", csvRecord.get("NAME"));
-                record.put("address", csvRecord.get("ADDRESS"));
-                record.put("town", csvRecord.get("TOWN NAME"));
-                record.put("countryName", csvRecord.get("COUNTRY NAME").toUpperCase());
-                record.put("iso2Code", iso2Code);
-                record.put("timeZone", csvRecord.get("TIME ZONE"));
-                record.put("bankType", bankType);
+            createBranchRelationships(headquarters);
+            appendReloaded();
+            saveCheckpoint(csvFile, checksum, totalCount, CHECKPOINT_COMPLETED);
+
+            double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            long written = totalCount - Math.min(resumeAfter, totalCount);
+            log.info("Completed importing {} total records in {} s ({} rows/sec, batch size {}, {} writers)",
+                    written, String.format("%.2f", seconds),
+                    String.format("%.0f", written / Math.max(seconds, 0.001)), BATCH_SIZE, WRITER_THREADS);
+            if (resumeAfter > 0) {
+                log.info("Resumed after record {}; {} records were imported before the interruption", resumeAfter,
+                        Math.min(resumeAfter, totalCount));
+            }
+            if (skippedCount > 0) {
+                log.warn("Skipped {} records with invalid SWIFT codes", skippedCount);
+            }
+            importProgress.completed();
 
-                records.put(swiftCode, record);
+        } catch (IOException e) {
+            log.error("Error reading CSV file", e);
+            throw new RuntimeException("Failed to read CSV file", e);
+        } finally {
+            // Lookups made while the import was running may have cached headquarters without their branches
+            swiftCodeCache.invalidateAll();
+            swiftDirectory.markStale();
+            datasetVersion.resume();
+            changeFeedService.changesCommitted();
+        }
+    }
 
-                if (recordCount >= batchSize) {
-                    processBatch(countries, records, headquarters);
-                    log.info("Processed {} records (total: {})", recordCount, totalCount);
+    /**
+     * Counts committed batches and advances the stored checkpoint, at most once per interval and never from two
+     * writer threads at a time.
+     */
+    private class Checkpointer implements ImportBatchWriter.CommitListener {
+        private final long checksum;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong lastSavedNanos = new AtomicLong(System.nanoTime());
+
+        Checkpointer(long checksum) {
+            this.checksum = checksum;
+        }
 
-                    recordCount = 0;
-                    countries = new HashSet<>();
-                    records = new HashMap<>();
+        @Override
+        public void batchCommitted(int rows, long committedThrough) {
+            importProgress.batchCommitted(rows);
+
+            long now = System.nanoTime();
+            if (now - lastSavedNanos.get() < CHECKPOINT_INTERVAL_NANOS || !lock.tryLock()) {
+                return;
+            }
+            try {
+                lastSavedNanos.set(now);
+                try (Session session = neo4jDriver.session()) {
+                    session.executeWrite(tx -> {
+                        tx.run(ADVANCE_CHECKPOINT_QUERY, Map.of("id", CHECKPOINT_ID, "checksum", checksum,
+                                "recordNumber", committedThrough));
+                        return null;
+                    });
                 }
+                importProgress.checkpointed(committedThrough);
+            } catch (Neo4jException e) {
+                // The import itself can go on; a resume would just start from an older checkpoint
+                log.warn("Failed to save the import checkpoint", e);
+            } finally {
+                lock.unlock();
             }
+        }
+    }
+
+    private Checkpoint loadCheckpoint() {
+        try (Session session = neo4jDriver.session()) {
+            return session.executeRead(tx -> {
+                var result = tx.run(LOAD_CHECKPOINT_QUERY, Map.of("id", CHECKPOINT_ID));
+                if (!result.hasNext()) {
+                    return null;
+                }
+                var record = result.next();
+                return new Checkpoint(record.get("checksum").asLong(), record.get("recordNumber").asLong(),
+                        record.get("status").asString());
+            });
+        }
+    }
 
-            if (!records.isEmpty()) {
-                processBatch(countries, records, headquarters);
-                log.info("Processed final batch of {} records (total: {})", records.size(), totalCount);
+    private void saveCheckpoint(Path csvFile, long checksum, long recordNumber, String status) {
+        try (Session session = neo4jDriver.session()) {
+            session.executeWrite(tx -> {
+                tx.run(SAVE_CHECKPOINT_QUERY, Map.of("id", CHECKPOINT_ID, "file", csvFile.toString(),
+                        "checksum", checksum, "recordNumber", recordNumber, "status", status));
+                return null;
+            });
+        }
+    }
+
+    private static long checksum(Path csvFile) {
+        try {
+            return MappedCsvReader.checksum(csvFile);
+        } catch (IOException e) {
+            log.error("Error reading CSV file", e);
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    /**
+     * Applies a changed CSV file to an already imported database.
+     * <p>
+     * Every imported Bank stores a hash of its CSV fields. The hashes are loaded up front, then the file is streamed
+     * once: rows whose code is unknown or whose hash differs are upserted in batches, matching rows are skipped, and
+     * each row removes its code from the loaded hashes. Whatever is left afterwards was removed from the file and is
+     * deleted. Banks created through the API carry no hash, so they are never deleted; a CSV row with the same code
+     * overwrites them and they become imported banks. Every upsert and deletion is appended to the {@link ChangeLog}
+     * in the transaction of its batch.
+     */
+    private void syncCsvData() {
+        log.info("Synchronizing the database with {}", CSV_FILE_PATH);
+        long startTime = System.nanoTime();
+
+        LongObjectMap<Long> importedHashes = loadImportedHashes();
+        List<String> written = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        int totalCount = 0;
+        int skippedCount = 0;
+        int insertedCount = 0;
+
+        datasetVersion.suspend();
+        try (MappedCsvReader csvReader = new MappedCsvReader(Path.of(CSV_FILE_PATH));
+                ImportBatchWriter writer = new ImportBatchWriter(neo4jDriver,
+                        List.of(ChangeLog.LOCK_COUNTRIES_QUERY, SYNC_BATCH_QUERY, ChangeLog.APPEND_QUERY),
+                        BATCH_SIZE, WRITER_THREADS, QUEUE_CAPACITY, Threading.VIRTUAL.isActive(environment),
+                        (rows, committedThrough) -> importProgress.batchCommitted(rows))) {
+
+            importProgress.start("sync", CSV_FILE_PATH, csvReader.size(), 0);
+
+            // Headquarters of inserted codes, keyed by packed code: their branches have to be linked
+            LongObjectMap<String> headquarters = new LongObjectMap<>();
+
+            ImportColumns columns = ImportColumns.of(csvReader);
+            for (MappedCsvReader.Row row; (row = csvReader.next()) != null; ) {
+                totalCount++;
+                importProgress.recordRead(csvReader.bytesRead());
+
+                long packedSwiftCode = packedSwiftCode(row, columns);
+                if (packedSwiftCode == SwiftCode.INVALID) {
+                    skippedCount++;
+                    continue;
+                }
+
+                Map<String, Object> record = toImportRow(row, columns, packedSwiftCode);
+                Long previousHash = importedHashes.remove(packedSwiftCode);
+                if (previousHash != null && previousHash.longValue() == (long) record.get("contentHash")) {
+                    continue;
+                }
+
+                if (previousHash == null) {
+                    insertedCount++;
+                    long hqSwiftCode = SwiftCode.headquarters(packedSwiftCode);
+                    headquarters.put(hqSwiftCode, SwiftCode.decode(hqSwiftCode));
+                }
+                record.put("changeType", (previousHash == null ? ChangeEventDTO.Type.CREATED
+                        : ChangeEventDTO.Type.UPDATED).name());
+                written.add((String) record.get("swiftCode"));
+                writer.add(SwiftCode.bic8(packedSwiftCode), packedSwiftCode, row.number(), record);
             }
 
+            importProgress.parsed();
+            writer.finish();
+
+            importedHashes.forEach((swiftCode, contentHash) -> removed.add(SwiftCode.decode(swiftCode)));
+            deleteRemovedBanks(removed);
+
             createBranchRelationships(headquarters);
 
-            log.info("Completed importing {} total records", totalCount);
+            double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            log.info("Completed synchronizing {} total records in {} s: {} inserted, {} changed, {} removed",
+                    totalCount, String.format("%.2f", seconds), insertedCount, written.size() - insertedCount,
+                    removed.size());
+            if (skippedCount > 0) {
+                log.warn("Skipped {} records with invalid SWIFT codes", skippedCount);
+            }
+            importProgress.completed();
 
         } catch (IOException e) {
             log.error("Error reading CSV file", e);
             throw new RuntimeException("Failed to read CSV file", e);
+        } finally {
+            // Invalidating a code also evicts its headquarters, which is cached together with its branches
+            if (!written.isEmpty() || !removed.isEmpty()) {
+                for (List<String> swiftCodes : List.of(written, removed)) {
+                    for (String swiftCode : swiftCodes) {
+                        swiftCodeCache.invalidate(swiftCode);
+                    }
+                }
+                swiftDirectory.markStale();
+                changeFeedService.changesCommitted();
+            }
+            datasetVersion.resume();
+        }
+    }
+
+    private LongObjectMap<Long> loadImportedHashes() {
+        LongObjectMap<Long> hashes = new LongObjectMap<>();
+        try (Session session = neo4jDriver.session()) {
+            session.executeRead(tx -> {
+                tx.run(IMPORTED_HASHES_QUERY).forEachRemaining(record -> hashes.put(
+                        SwiftCode.encode(record.get("swiftCode").asString()), record.get("contentHash").asLong()));
+                return null;
+            });
+        }
+        log.info("Loaded content hashes of {} imported banks", hashes.size());
+        return hashes;
+    }
+
+    private void deleteRemovedBanks(List<String> swiftCodes) {
+        try (Session session = neo4jDriver.session()) {
+            for (int from = 0; from < swiftCodes.size(); from += BATCH_SIZE) {
+                List<String> batch = swiftCodes.subList(from, Math.min(from + BATCH_SIZE, swiftCodes.size()));
+                session.executeWrite(tx -> {
+                    List<Map<String, Object>> changes = new ArrayList<>();
+                    ChangeLog.lockCountries(tx, batch.stream()
+                            .map(swiftCode -> ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode, null))
+                            .toList());
+                    tx.run(DELETE_REMOVED_QUERY, Map.of("swiftCodes", batch)).forEachRemaining(record -> changes.add(
+                            ChangeLog.change(ChangeEventDTO.Type.DELETED, record.get("swiftCode").asString(),
+                                    record.get("iso2Code", (String) null))));
+                    ChangeLog.append(tx, changes);
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Indexes of the banks.csv columns, resolved once from the header.
+     */
+    record ImportColumns(int iso2Code, int swiftCode, int codeType, int name, int address, int town,
+            int countryName, int timeZone) {
+
+        static ImportColumns of(MappedCsvReader reader) {
+            return new ImportColumns(reader.column("COUNTRY ISO2 CODE"), reader.column("SWIFT CODE"),
+                    reader.column("CODE TYPE"), reader.column("NAME"), reader.column("ADDRESS"),
+                    reader.column("TOWN NAME"), reader.column("COUNTRY NAME"), reader.column("TIME ZONE"));
+        }
+    }
+
+    /**
+     * Validates the SWIFT code of a CSV record.
+     *
+     * @return The packed SWIFT code, or {@link SwiftCode#INVALID} after logging a warning
+     */
+    static long packedSwiftCode(MappedCsvReader.Row row, ImportColumns columns) {
+        // Validated over the mapped bytes, so only invalid codes are turned into a String here
+        long packedSwiftCode = SwiftCode.encode(row.view(columns.swiftCode()));
+        if (packedSwiftCode == SwiftCode.INVALID) {
+            log.warn("Skipping line {} with invalid SWIFT code: {}", row.number() + 1, row.get(columns.swiftCode()));
+        }
+        return packedSwiftCode;
+    }
+
+    /**
+     * Builds the parameters of {@link #IMPORT_BATCH_QUERY} for one CSV record.
+     *
+     * @param packedSwiftCode The SWIFT code of the record, already validated by {@link SwiftCode#encode(CharSequence)}
+     */
+    static Map<String, Object> toImportRow(MappedCsvReader.Row row, ImportColumns columns, long packedSwiftCode) {
+        String swiftCode = row.get(columns.swiftCode());
+        boolean isHeadquarters = SwiftCode.isHeadquarters(packedSwiftCode);
+
+        Map<String, Object> record = new HashMap<>();
+        record.put("swiftCode", swiftCode);
+        record.put("codeType", row.interned(columns.codeType()));
+        record.put("name", row.get(columns.name()));
+        record.put("address", row.get(columns.address()));
+        record.put("town", row.get(columns.town()));
+        record.put("countryName", row.internedUpperCase(columns.countryName()));
+        record.put("iso2Code", row.internedUpperCase(columns.iso2Code()));
+        record.put("timeZone", row.interned(columns.timeZone()));
+        record.put("bankType", isHeadquarters ? "HEADQUARTERS" : "BRANCH");
+        record.put("bic8", swiftCode.substring(0, SwiftCode.BIC8_LENGTH));
+        record.put("contentHash", contentHash(record));
+        return record;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the CSV fields stored on a Bank and its Country, used by the sync to detect changed rows.
+     * The fields derived from the SWIFT code are left out since the code is the key.
+     */
+    static long contentHash(Map<String, Object> record) {
+        long hash = 0xcbf29ce484222325L;
+        for (String field : HASHED_FIELDS) {
+            String value = (String) record.get(field);
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            // Field separator, so that moving text from one field to the next changes the hash
+            hash = (hash ^ 0xffff) * 0x100000001b3L;
         }
+        return hash;
     }
 
     private boolean dataExists() {
@@ -118,7 +554,11 @@ public class CsvImportService {
         }
     }
 
-    private void createConstraints() {
+    /**
+     * Creates the schema constraints and indexes the API relies on, and the change log sequence; safe to call on an
+     * existing database.
+     */
+    void createConstraints() {
         log.info("Creating schema constraints");
 
         try (Session session = neo4jDriver.session()) {
@@ -137,72 +577,91 @@ public class CsvImportService {
                 return null;
             });
 
+            // Tokenised, case-insensitive bank name search
+            session.executeWrite(tx -> {
+                tx.run("CREATE FULLTEXT INDEX bank_name_fulltext IF NOT EXISTS FOR (b:Bank) ON EACH [b.name]");
+                return null;
+            });
+
             session.executeWrite(tx -> {
                 tx.run("CREATE INDEX bank_type IF NOT EXISTS FOR (b:Bank) ON (b.type)");
                 return null;
             });
 
+            session.executeWrite(tx -> {
+                tx.run("CREATE INDEX bank_bic8 IF NOT EXISTS FOR (b:Bank) ON (b.bic8)");
+                return null;
+            });
+
+            // Banks of a database imported before bic8 was stored are only found by the BIC8 lookups once filled
+            long backfilled = 0;
+            long updated;
+            do {
+                updated = session.executeWrite(tx -> tx.run(BACKFILL_BIC8_QUERY, Map.of("limit", BATCH_SIZE))
+                        .single().get("updated").asLong());
+                backfilled += updated;
+            } while (updated == BATCH_SIZE);
+            if (backfilled > 0) {
+                log.info("Filled the BIC8 prefix of {} banks", backfilled);
+            }
+
             session.executeWrite(tx -> {
                 tx.run("CREATE INDEX country_name IF NOT EXISTS FOR (c:Country) ON (c.name)");
                 return null;
             });
 
-            log.info("Schema constraints and indexes created successfully");
-        } catch (Neo4jException e) {
-            log.error("Error creating schema constraints", e);
-            throw e;
-        }
-    }
+            // The change log: a single sequence node, and events read in sequence order and pruned by age
+            session.executeWrite(tx -> {
+                tx.run("CREATE CONSTRAINT IF NOT EXISTS FOR (s:ChangeSequence) REQUIRE s.id IS UNIQUE");
+                return null;
+            });
 
-    private void processBatch(Set<String> countries, Map<String, Map<String, Object>> records,
-            Map<String, String> headquarters) {
-        try (Session session = neo4jDriver.session()) {
             session.executeWrite(tx -> {
-                for (String iso2Code : countries) {
-                    Map<String, Object> record = records.values().stream()
-                            .filter(r -> iso2Code.equals(r.get("iso2Code"))).findFirst().orElseThrow();
-
-                    tx.run("MERGE (c:Country {iso2Code: $iso2Code}) "
-                            + "ON CREATE SET c.name = $name, c.timeZone = $timeZone",
-                            Map.of("iso2Code", iso2Code, "name", record.get("countryName"), "timeZone",
-                                    record.get("timeZone")));
-                }
+                tx.run("CREATE CONSTRAINT IF NOT EXISTS FOR (e:ChangeEvent) REQUIRE e.sequence IS UNIQUE");
                 return null;
             });
 
             session.executeWrite(tx -> {
-                for (Map<String, Object> record : records.values()) {
-                    String swiftCode = (String) record.get("swiftCode");
-
-                    tx.run("MERGE (b:Bank {swiftCode: $swiftCode}) "
-                            + "ON CREATE SET b.codeType = $codeType, b.name = $name, "
-                            + "b.address = $address, b.town = $town, b.type = $bankType",
-                            Map.of("swiftCode", swiftCode, "codeType", record.get("codeType"), "name",
-                                    record.get("name"), "address", record.get("address"), "town", record.get("town"),
-                                    "bankType", record.get("bankType")));
-
-                    tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) " + "MATCH (c:Country {iso2Code: $iso2Code}) "
-                            + "MERGE (b)-[:LOCATED_IN]->(c)",
-                            Map.of("swiftCode", swiftCode, "iso2Code", record.get("iso2Code")));
-                }
+                tx.run("CREATE INDEX change_event_at IF NOT EXISTS FOR (e:ChangeEvent) ON (e.at)");
+                return null;
+            });
+
+            session.executeWrite(tx -> {
+                tx.run(ChangeLog.INIT_QUERY);
                 return null;
             });
+
+            log.info("Schema constraints and indexes created successfully");
         } catch (Neo4jException e) {
-            log.error("Error processing batch", e);
+            log.error("Error creating schema constraints", e);
             throw e;
         }
     }
 
-    private void createBranchRelationships(Map<String, String> headquarters) {
-        log.info("Creating BRANCH_OF relationships between branches and headquarters");
+    private void appendReloaded() {
         try (Session session = neo4jDriver.session()) {
             session.executeWrite(tx -> {
-                tx.run("MATCH (branch:Bank) " + "WHERE branch.type = 'BRANCH' "
-                        + "WITH branch, substring(branch.swiftCode, 0, 8) AS bic8 " + "MATCH (hq:Bank) "
-                        + "WHERE hq.type = 'HEADQUARTERS' AND substring(hq.swiftCode, 0, 8) = bic8 "
-                        + "MERGE (branch)-[:BRANCH_OF]->(hq)", Map.of());
+                tx.run(ChangeLog.LOCK_ALL_COUNTRIES_QUERY).consume();
+                ChangeLog.append(tx, List.of(ChangeLog.change(ChangeEventDTO.Type.RELOADED, null, null)));
+                tx.run(ChangeLog.RELOAD_COUNTRIES_QUERY);
                 return null;
             });
+        }
+    }
+
+    private void createBranchRelationships(LongObjectMap<String> headquarters) {
+        log.info("Creating BRANCH_OF relationships for {} headquarters", headquarters.size());
+        List<String> hqSwiftCodes = new ArrayList<>(headquarters.size());
+        headquarters.forEachValue(hqSwiftCodes::add);
+
+        try (Session session = neo4jDriver.session()) {
+            for (int from = 0; from < hqSwiftCodes.size(); from += BATCH_SIZE) {
+                List<String> batch = hqSwiftCodes.subList(from, Math.min(from + BATCH_SIZE, hqSwiftCodes.size()));
+                session.executeWrite(tx -> {
+                    tx.run(LINK_BRANCHES_QUERY, Map.of("headquarters", batch));
+                    return null;
+                });
+            }
             log.info("Branch relationships created successfully");
         } catch (Neo4jException e) {
             log.error("Error creating branch relationships", e);
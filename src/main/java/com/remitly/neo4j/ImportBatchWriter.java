@@ -0,0 +1,286 @@
+package com.remitly.neo4j;
+
+import com.remitly.neo4j.swift.LongObjectMap;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Feeds import rows to a fixed set of writer workers.
+ * <p>
+ * Rows are partitioned by the BIC8 prefix of their SWIFT code, and every partition is owned by exactly one worker,
+ * so two workers never write the same Bank node. Country nodes are shared by all partitions, therefore they are
+ * merged up front on the producer thread before any batch referencing them is handed to a worker; the workers only
+ * match them. Each worker reads from its own bounded queue, which blocks the producer when Neo4j falls behind and
+ * keeps the number of rows held in memory independent of the file size.
+ * <p>
+ * Batches of different partitions commit out of order, so the writer also tracks a low watermark: the highest record
+ * number such that every row added up to it has been committed. It is reported to the {@link CommitListener} after
+ * each commit and is what an interrupted import can safely resume after.
+ */
+class ImportBatchWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ImportBatchWriter.class);
+
+    private static final String MERGE_COUNTRIES_QUERY = "UNWIND $rows AS row "
+            + "MERGE (c:Country {iso2Code: row.iso2Code}) "
+            + "ON CREATE SET c.name = row.countryName, c.timeZone = row.timeZone "
+            + "ON MATCH SET c.name = row.countryName";
+
+    private static final Batch END_OF_INPUT = new Batch(List.of(), Long.MAX_VALUE);
+    private static final String THREAD_NAME_PREFIX = "csv-import-writer-";
+
+    private final Driver neo4jDriver;
+    private final List<String> batchQueries;
+    private final int batchSize;
+    private final CommitListener listener;
+    private final List<BlockingQueue<Batch>> queues = new ArrayList<>();
+    private final List<LongObjectMap<Map<String, Object>>> buffers = new ArrayList<>();
+
+    // Guarded by this: the first record number of each partition's buffer (MAX_VALUE when empty) and of each batch
+    // handed to its worker but not committed yet
+    private final long[] bufferFirstRecords;
+    private final List<ArrayDeque<Long>> uncommittedFirstRecords = new ArrayList<>();
+    private volatile long lastRecord;
+    private final Map<String, Map<String, Object>> pendingCountries = new HashMap<>();
+    private final Set<String> knownCountries = new HashSet<>();
+    private final ExecutorService workers;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final AtomicLong committedRows = new AtomicLong();
+
+    /**
+     * Called on a writer thread after each committed batch.
+     */
+    @FunctionalInterface
+    interface CommitListener {
+        /**
+         * @param rows             The number of rows in the batch
+         * @param committedThrough Every row added with a record number up to this one has been committed
+         */
+        void batchCommitted(int rows, long committedThrough);
+    }
+
+    private record Batch(List<Map<String, Object>> rows, long firstRecord) {
+    }
+
+    /**
+     * @param batchQueries   Statements run in order in the transaction of each batch, all with the batch as
+     *                       {@code $rows}
+     * @param virtualThreads Run the workers on virtual threads (Java 21+); the number of workers is unchanged
+     */
+    ImportBatchWriter(Driver neo4jDriver, List<String> batchQueries, int batchSize, int writerThreads,
+            int queueCapacity, boolean virtualThreads, CommitListener listener) {
+        this.neo4jDriver = neo4jDriver;
+        this.batchQueries = batchQueries;
+        this.batchSize = batchSize;
+        this.listener = listener;
+        this.bufferFirstRecords = new long[writerThreads];
+        Arrays.fill(bufferFirstRecords, Long.MAX_VALUE);
+
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX).getVirtualThreadFactory();
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        this.workers = Executors.newFixedThreadPool(writerThreads, threadFactory);
+
+        for (int i = 0; i < writerThreads; i++) {
+            int partition = i;
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            buffers.add(new LongObjectMap<>(batchSize));
+            uncommittedFirstRecords.add(new ArrayDeque<>());
+            workers.execute(() -> runWorker(partition));
+        }
+    }
+
+    /**
+     * Adds a row to the buffer of its partition, handing the buffer to the owning worker once it is full.
+     *
+     * @param bic8         The packed BIC8 prefix, used as partition key
+     * @param swiftCode    The packed SWIFT code; a later row with the same code replaces the buffered one
+     * @param recordNumber The number of the row in the file, increasing from one call to the next
+     * @param row          The row parameters, including iso2Code, countryName and timeZone
+     */
+    void add(long bic8, long swiftCode, long recordNumber, Map<String, Object> row) {
+        String iso2Code = (String) row.get("iso2Code");
+        if (knownCountries.add(iso2Code)) {
+            pendingCountries.put(iso2Code, row);
+        }
+
+        int partition = Math.floorMod(Long.hashCode(bic8), queues.size());
+        LongObjectMap<Map<String, Object>> buffer = buffers.get(partition);
+        if (buffer.isEmpty()) {
+            synchronized (this) {
+                bufferFirstRecords[partition] = recordNumber;
+            }
+        }
+        buffer.put(swiftCode, row);
+        lastRecord = recordNumber;
+
+        if (buffer.size() >= batchSize) {
+            enqueue(partition);
+        }
+    }
+
+    /**
+     * Hands the remaining rows to the workers and waits until every batch has been committed.
+     *
+     * @throws RuntimeException the first error raised by a worker
+     */
+    void finish() {
+        for (int i = 0; i < queues.size(); i++) {
+            if (!buffers.get(i).isEmpty()) {
+                enqueue(i);
+            }
+        }
+        for (BlockingQueue<Batch> queue : queues) {
+            put(queue, END_OF_INPUT);
+        }
+
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                throwIfFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for import writers", e);
+        }
+        throwIfFailed();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private void enqueue(int partition) {
+        mergePendingCountries();
+
+        LongObjectMap<Map<String, Object>> buffer = buffers.get(partition);
+        List<Map<String, Object>> rows = new ArrayList<>(buffer.size());
+        buffer.forEachValue(rows::add);
+        buffer.clear();
+
+        long firstRecord;
+        synchronized (this) {
+            firstRecord = bufferFirstRecords[partition];
+            bufferFirstRecords[partition] = Long.MAX_VALUE;
+            uncommittedFirstRecords.get(partition).add(firstRecord);
+        }
+        put(queues.get(partition), new Batch(rows, firstRecord));
+    }
+
+    /**
+     * @return The highest record number such that all rows added up to it have been committed
+     */
+    private synchronized long committedThrough() {
+        long oldestUncommitted = Long.MAX_VALUE;
+        for (int i = 0; i < bufferFirstRecords.length; i++) {
+            oldestUncommitted = Math.min(oldestUncommitted, bufferFirstRecords[i]);
+            Long firstRecord = uncommittedFirstRecords.get(i).peek();
+            if (firstRecord != null) {
+                oldestUncommitted = Math.min(oldestUncommitted, firstRecord);
+            }
+        }
+        return oldestUncommitted == Long.MAX_VALUE ? lastRecord : oldestUncommitted - 1;
+    }
+
+    private void mergePendingCountries() {
+        if (pendingCountries.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(pendingCountries.values());
+        try (Session session = neo4jDriver.session()) {
+            session.executeWrite(tx -> {
+                tx.run(MERGE_COUNTRIES_QUERY, Map.of("rows", rows));
+                return null;
+            });
+        }
+        pendingCountries.clear();
+    }
+
+    private void put(BlockingQueue<Batch> queue, Batch batch) {
+        try {
+            while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+                throwIfFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing an import batch", e);
+        }
+    }
+
+    private void throwIfFailed() {
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void runWorker(int partition) {
+        BlockingQueue<Batch> queue = queues.get(partition);
+        try {
+            while (true) {
+                Batch next = queue.take();
+                if (next == END_OF_INPUT) {
+                    return;
+                }
+                List<Map<String, Object>> batch = next.rows();
+
+                // Sorting by country makes concurrent transactions lock the shared Country nodes in the same order
+                batch.sort(Comparator.comparing(row -> (String) row.get("iso2Code")));
+                try (Session session = neo4jDriver.session()) {
+                    session.executeWrite(tx -> {
+                        for (String batchQuery : batchQueries) {
+                            tx.run(batchQuery, Map.of("rows", batch));
+                        }
+                        return null;
+                    });
+                }
+
+                long total = committedRows.addAndGet(batch.size());
+                log.info("Committed batch of {} records (total: {})", batch.size(), total);
+
+                long committedThrough;
+                synchronized (this) {
+                    uncommittedFirstRecords.get(partition).poll();
+                    committedThrough = committedThrough();
+                }
+                listener.batchCommitted(batch.size(), committedThrough);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Error processing batch", e);
+            failure.compareAndSet(null, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.remitly.neo4j;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes the CSV import progress at {@code /actuator/import}.
+ */
+@Component
+@Endpoint(id = "import")
+public class ImportEndpoint {
+
+    private final ImportProgress importProgress;
+
+    public ImportEndpoint(ImportProgress importProgress) {
+        this.importProgress = importProgress;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return importProgress.snapshot();
+    }
+}
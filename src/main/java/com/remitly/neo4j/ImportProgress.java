@@ -0,0 +1,248 @@
+package com.remitly.neo4j;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the current or last CSV import, updated by {@link CsvImportService} and read by {@link ImportEndpoint},
+ * {@link CsvImportHealthIndicator} and the {@code csv.import.*} gauges. Counters are written by the parser and the
+ * writer threads and may be read from any thread.
+ * <p>
+ * The number of records in the file is not known before it has been parsed, so it is extrapolated from the bytes
+ * parsed so far. The ETA divides the rows still to be written by the rate of committed rows; a sync writes only
+ * changed rows, so its ETA follows the rate of records read instead.
+ */
+@Component
+public class ImportProgress {
+
+    public enum State {
+        IDLE, STARTING, RUNNING, COMPLETED, SKIPPED, FAILED
+    }
+
+    private volatile State state = State.IDLE;
+    private volatile String mode;
+    private volatile String file;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long startNanos;
+    private volatile long resumedAfter;
+    private volatile long fileSize;
+    private volatile long bytesRead;
+    private volatile long recordsRead;
+    private volatile boolean parsed;
+    private volatile long checkpoint;
+    private volatile String message;
+    private final AtomicLong rowsCommitted = new AtomicLong();
+    private final AtomicLong batchesCommitted = new AtomicLong();
+
+    public ImportProgress(MeterRegistry meterRegistry) {
+        Gauge.builder("csv.import.running", this, progress -> progress.isRunning() ? 1 : 0)
+                .description("1 while the CSV import is starting or running")
+                .register(meterRegistry);
+        Gauge.builder("csv.import.records.read", this, progress -> progress.recordsRead)
+                .register(meterRegistry);
+        Gauge.builder("csv.import.rows.committed", this, progress -> progress.rowsCommitted.get())
+                .register(meterRegistry);
+        Gauge.builder("csv.import.batches.committed", this, progress -> progress.batchesCommitted.get())
+                .register(meterRegistry);
+        Gauge.builder("csv.import.rows.per.second", this, ImportProgress::rowsPerSecond)
+                .register(meterRegistry);
+        Gauge.builder("csv.import.progress", this, ImportProgress::fraction)
+                .description("Fraction of the file handled, from 0 to 1")
+                .register(meterRegistry);
+        Gauge.builder("csv.import.eta", this, ImportProgress::etaSeconds)
+                .description("Estimated time until the running import has written all rows")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Marks an import as about to start, before the background thread picks it up.
+     */
+    void starting() {
+        state = State.STARTING;
+    }
+
+    /**
+     * @param mode         "full", "resume" or "sync"
+     * @param resumedAfter The record number the import continues after, 0 for a new import
+     */
+    void start(String mode, String file, long fileSize, long resumedAfter) {
+        this.mode = mode;
+        this.file = file;
+        this.fileSize = fileSize;
+        this.resumedAfter = resumedAfter;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.finishedAt = null;
+        this.bytesRead = 0;
+        this.recordsRead = 0;
+        this.parsed = false;
+        this.checkpoint = resumedAfter;
+        this.message = null;
+        rowsCommitted.set(0);
+        batchesCommitted.set(0);
+        state = State.RUNNING;
+    }
+
+    /**
+     * Called by the parser thread only.
+     *
+     * @param bytesRead Bytes of the file parsed up to and including the record
+     */
+    void recordRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+        recordsRead++;
+    }
+
+    /**
+     * Called once the whole file has been parsed, so the record count is exact from now on.
+     */
+    void parsed() {
+        parsed = true;
+    }
+
+    void batchCommitted(int rows) {
+        rowsCommitted.addAndGet(rows);
+        batchesCommitted.incrementAndGet();
+    }
+
+    void checkpointed(long recordNumber) {
+        checkpoint = recordNumber;
+    }
+
+    void completed() {
+        finish(State.COMPLETED);
+    }
+
+    void skipped(String reason) {
+        this.mode = null;
+        this.message = reason;
+        this.startedAt = Instant.now();
+        finish(State.SKIPPED);
+    }
+
+    void failed(Exception e) {
+        this.message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        finish(State.FAILED);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isRunning() {
+        return state == State.STARTING || state == State.RUNNING;
+    }
+
+    private void finish(State finalState) {
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    /**
+     * @return The records in the file: exact once it has been parsed, extrapolated from the bytes read before
+     */
+    private double estimatedRecords() {
+        long read = recordsRead;
+        if (parsed || bytesRead == 0) {
+            return read;
+        }
+        return read * ((double) fileSize / bytesRead);
+    }
+
+    private double elapsedSeconds() {
+        if (state != State.RUNNING) {
+            return startedAt == null || finishedAt == null ? 0
+                    : Duration.between(startedAt, finishedAt).toMillis() / 1000.0;
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private double rowsPerSecond() {
+        double seconds = elapsedSeconds();
+        return seconds > 0 ? rowsCommitted.get() / seconds : 0;
+    }
+
+    private double fraction() {
+        if (state == State.COMPLETED) {
+            return 1;
+        }
+        if (state != State.RUNNING) {
+            return 0;
+        }
+        double total = estimatedRecords();
+        if (total == 0) {
+            return 0;
+        }
+        double handled = "sync".equals(mode) ? recordsRead : resumedAfter + rowsCommitted.get();
+        return Math.min(1, handled / total);
+    }
+
+    /**
+     * @return Seconds until all rows are written at the current rate, 0 when no import runs, NaN before the first
+     *         rows have been handled
+     */
+    private double etaSeconds() {
+        if (state != State.RUNNING) {
+            return 0;
+        }
+        double seconds = elapsedSeconds();
+        double total = estimatedRecords();
+        double done;
+        double rate;
+        if ("sync".equals(mode)) {
+            done = recordsRead;
+            rate = seconds > 0 ? recordsRead / seconds : 0;
+        } else {
+            done = resumedAfter + rowsCommitted.get();
+            rate = rowsPerSecond();
+        }
+        if (rate == 0) {
+            return Double.NaN;
+        }
+        return Math.max(0, total - done) / rate;
+    }
+
+    /**
+     * @return The progress as shown by the actuator endpoint and the health indicator
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state);
+        snapshot.put("mode", mode);
+        snapshot.put("file", file);
+        snapshot.put("startedAt", startedAt);
+        snapshot.put("finishedAt", finishedAt);
+        snapshot.put("resumedAfterRecord", resumedAfter);
+        snapshot.put("recordsRead", recordsRead);
+        snapshot.put("estimatedRecords", Math.round(estimatedRecords()));
+        snapshot.put("rowsCommitted", rowsCommitted.get());
+        snapshot.put("batchesCommitted", batchesCommitted.get());
+        snapshot.put("checkpointRecord", checkpoint);
+        if (startedAt != null) {
+            snapshot.put("elapsedSeconds", round(elapsedSeconds()));
+            snapshot.put("rowsPerSecond", round(rowsPerSecond()));
+            snapshot.put("progress", round(fraction()));
+        }
+        if (state == State.RUNNING) {
+            double eta = etaSeconds();
+            snapshot.put("etaSeconds", Double.isNaN(eta) ? null : round(eta));
+        }
+        if (message != null) {
+            snapshot.put("message", message);
+        }
+        return snapshot;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
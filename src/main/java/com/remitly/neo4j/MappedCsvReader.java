@@ -0,0 +1,492 @@
+package com.remitly.neo4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * CSV reader over a memory-mapped file, for the import path.
+ * <p>
+ * Records are parsed in place: a record only stores the offsets of its fields in the mapping, and {@link #next()}
+ * returns the same {@link Row} for every record. A field becomes a String only when asked for, either decoded from
+ * UTF-8 or, for low-cardinality columns such as countries and time zones, looked up in a per-column intern table
+ * without allocating. {@link Row#view(int)} exposes an ASCII field as a CharSequence over the mapping, which is
+ * enough to validate a SWIFT code without creating a String.
+ * <p>
+ * Accepts the subset of RFC 4180 that banks.csv uses, with the behaviour of the Commons CSV format the import used
+ * before: a header line, comma separators, optional double quotes with {@code ""} escapes, CRLF or LF line endings,
+ * empty lines skipped, values trimmed, and header names matched ignoring case. Files larger than a mapping window are
+ * mapped window by window; a single record must fit in one window. Not thread-safe.
+ */
+class MappedCsvReader implements AutoCloseable {
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    private static final int INITIAL_FIELDS = 16;
+
+    // Intern tables stop growing beyond this, so a high-cardinality column falls back to plain decoding
+    private static final int MAX_INTERNED = 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Row row = new Row();
+
+    private MappedByteBuffer buffer;
+    private long windowStart;
+    private int position;
+    private int limit;
+    private boolean lastWindow;
+    private long recordNumber;
+
+    private int fieldCount;
+    private int[] starts = new int[INITIAL_FIELDS];
+    private int[] ends = new int[INITIAL_FIELDS];
+    private boolean[] escaped = new boolean[INITIAL_FIELDS];
+    private byte[] scratch = new byte[256];
+    private Interner[] interners = new Interner[0];
+    private Interner[] upperCaseInterners = new Interner[0];
+
+    MappedCsvReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvReader(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        try {
+            map(0);
+            // UTF-8 byte order mark
+            if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                    && buffer.get(2) == (byte) 0xBF) {
+                position = 3;
+            }
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The CRC32C of the whole file, computed over the same mapping windows as the reader
+     */
+    static long checksum(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            CRC32C crc = new CRC32C();
+            long size = channel.size();
+            for (long start = 0; start < size; start += DEFAULT_WINDOW_SIZE) {
+                long length = Math.min(DEFAULT_WINDOW_SIZE, size - start);
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            }
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * @return The index of a header column, matched ignoring case
+     * @throws IllegalArgumentException if the header has no such column
+     */
+    int column(String name) {
+        Integer index = columns.get(name.trim().toUpperCase(Locale.ROOT));
+        if (index == null) {
+            throw new IllegalArgumentException("Mapping for " + name + " not found, expected one of "
+                    + columns.keySet());
+        }
+        return index;
+    }
+
+    /**
+     * @return The size of the file in bytes
+     */
+    long size() {
+        return fileSize;
+    }
+
+    /**
+     * @return The number of bytes parsed so far, up to the end of the last returned record
+     */
+    long bytesRead() {
+        return windowStart + position;
+    }
+
+    /**
+     * Parses the next record into the shared row.
+     *
+     * @return The row, valid until the next call, or null at the end of the file
+     */
+    Row next() throws IOException {
+        if (!readRecord()) {
+            return null;
+        }
+        recordNumber++;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * One record of the file. The instance is reused by every {@link #next()} call.
+     */
+    final class Row {
+        private final FieldView view = new FieldView();
+
+        /**
+         * @return The 1-based number of the record, not counting the header
+         */
+        long number() {
+            return recordNumber;
+        }
+
+        /**
+         * @return The field as a new String
+         */
+        String get(int column) {
+            checkColumn(column);
+            if (escaped[column]) {
+                return unescape(column);
+            }
+            int length = ends[column] - starts[column];
+            byte[] bytes = copy(starts[column], length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return The field through the intern table of its column, for values repeated across many records
+         */
+        String interned(int column) {
+            checkColumn(column);
+            return interner(interners, column, false).intern(column);
+        }
+
+        /**
+         * @return The upper-cased field through the intern table of its column
+         */
+        String internedUpperCase(int column) {
+            checkColumn(column);
+            return interner(upperCaseInterners, column, true).intern(column);
+        }
+
+        /**
+         * Returns the field as characters over the mapping, without copying. Bytes are read as ISO-8859-1, so only
+         * ASCII content reads as its text; the view is only valid until the next record.
+         */
+        CharSequence view(int column) {
+            checkColumn(column);
+            if (escaped[column]) {
+                return unescape(column);
+            }
+            view.start = starts[column];
+            view.length = ends[column] - starts[column];
+            return view;
+        }
+
+        private void checkColumn(int column) {
+            if (column >= fieldCount) {
+                throw new IllegalArgumentException("Record " + recordNumber + " has only " + fieldCount
+                        + " values, column " + column + " requested");
+            }
+        }
+    }
+
+    private final class FieldView implements CharSequence {
+        private int start;
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(copy(start, length), 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Open-addressing table from the raw bytes of a field to its String, probed without creating a String.
+     */
+    private final class Interner {
+        private final boolean upperCase;
+        private final byte[][] keys = new byte[MAX_INTERNED * 2][];
+        private final String[] values = new String[MAX_INTERNED * 2];
+        private int size;
+
+        Interner(boolean upperCase) {
+            this.upperCase = upperCase;
+        }
+
+        String intern(int column) {
+            if (escaped[column]) {
+                return decode(unescape(column));
+            }
+            int start = starts[column];
+            int length = ends[column] - start;
+            int hash = 1;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+
+            int mask = keys.length - 1;
+            for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+                byte[] key = keys[slot];
+                if (key == null) {
+                    byte[] bytes = Arrays.copyOf(copy(start, length), length);
+                    String value = decode(new String(bytes, StandardCharsets.UTF_8));
+                    if (size < MAX_INTERNED) {
+                        keys[slot] = bytes;
+                        values[slot] = value;
+                        size++;
+                    }
+                    return value;
+                }
+                if (matches(key, start, length)) {
+                    return values[slot];
+                }
+            }
+        }
+
+        private String decode(String value) {
+            return upperCase ? value.toUpperCase() : value;
+        }
+
+        private boolean matches(byte[] key, int start, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private Interner interner(Interner[] table, int column, boolean upperCase) {
+        if (column >= table.length) {
+            table = Arrays.copyOf(table, Math.max(column + 1, fieldCount));
+            if (upperCase) {
+                upperCaseInterners = table;
+            } else {
+                interners = table;
+            }
+        }
+        if (table[column] == null) {
+            table[column] = new Interner(upperCase);
+        }
+        return table[column];
+    }
+
+    private void readHeader() throws IOException {
+        if (!readRecord()) {
+            throw new IllegalArgumentException("The CSV file is empty, a header line is expected");
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            String name = row.get(i).toUpperCase(Locale.ROOT);
+            if (columns.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("The header contains a duplicate name: " + name);
+            }
+        }
+    }
+
+    /**
+     * Parses the record at the current position, remapping the file when the record crosses the end of the window.
+     *
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        while (true) {
+            skipEmptyLines();
+            if (position >= limit) {
+                if (lastWindow) {
+                    return false;
+                }
+                map(windowStart + position);
+                continue;
+            }
+
+            int recordStart = position;
+            if (parseRecord()) {
+                return true;
+            }
+            if (recordStart == 0 && limit == windowSize) {
+                throw new IllegalStateException("Record " + (recordNumber + 1) + " is larger than the mapping window of "
+                        + windowSize + " bytes");
+            }
+            map(windowStart + recordStart);
+        }
+    }
+
+    private void skipEmptyLines() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '\n') {
+                position++;
+            } else if (b == '\r' && (position + 1 < limit || lastWindow)) {
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the record runs past the end of a window that is not the last one
+     */
+    private boolean parseRecord() {
+        int pos = position;
+        fieldCount = 0;
+
+        while (true) {
+            int start;
+            int end;
+            boolean hasEscapes = false;
+
+            if (pos < limit && buffer.get(pos) == '"') {
+                start = ++pos;
+                while (true) {
+                    if (pos >= limit) {
+                        if (!lastWindow) {
+                            return false;
+                        }
+                        throw new IllegalStateException("Record " + (recordNumber + 1)
+                                + " ends inside a quoted field");
+                    }
+                    if (buffer.get(pos) == '"') {
+                        if (pos + 1 >= limit && !lastWindow) {
+                            return false;
+                        }
+                        if (pos + 1 < limit && buffer.get(pos + 1) == '"') {
+                            hasEscapes = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                end = pos++;
+                // Anything between the closing quote and the separator is dropped, as trimming would
+                while (pos < limit && !isDelimiter(buffer.get(pos))) {
+                    pos++;
+                }
+            } else {
+                start = pos;
+                while (pos < limit && !isDelimiter(buffer.get(pos))) {
+                    pos++;
+                }
+                end = pos;
+            }
+
+            if (pos >= limit && !lastWindow) {
+                return false;
+            }
+
+            while (start < end && isBlank(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isBlank(buffer.get(end - 1))) {
+                end--;
+            }
+            addField(start, end, hasEscapes);
+
+            if (pos >= limit) {
+                position = pos;
+                return true;
+            }
+            byte delimiter = buffer.get(pos++);
+            if (delimiter == ',') {
+                continue;
+            }
+            if (delimiter == '\r') {
+                if (pos >= limit && !lastWindow) {
+                    return false;
+                }
+                if (pos < limit && buffer.get(pos) == '\n') {
+                    pos++;
+                }
+            }
+            position = pos;
+            return true;
+        }
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    private String unescape(int column) {
+        int length = 0;
+        byte[] bytes = copy(starts[column], ends[column] - starts[column]);
+        for (int i = 0; i < ends[column] - starts[column]; i++) {
+            bytes[length++] = bytes[i];
+            if (bytes[i] == '"') {
+                i++;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The shared scratch array holding the bytes at the start
+     */
+    private byte[] copy(int start, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return scratch;
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        position = 0;
+        limit = (int) size;
+        lastWindow = start + size >= fileSize;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -1,20 +1,82 @@
 package com.remitly.neo4j;
 
 import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.MetricsAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the Neo4j driver from the {@code neo4j.*} properties in application.properties.
+ * <p>
+ * With metrics enabled the driver reports its connection pool to Micrometer's global registry, which Spring Boot
+ * feeds into the actuator: {@code neo4j.driver.connections.in.use}, {@code .idle}, {@code .acquiring},
+ * {@code .acquisition} (wait time), {@code .acquisition.timeout} and related meters.
+ */
 @Configuration
 public class Neo4jConfig {
+    private static final Logger log = LoggerFactory.getLogger(Neo4jConfig.class);
+
+    @Value("${neo4j.uri}")
+    private String uri;
+
+    @Value("${neo4j.user}")
+    private String user;
+
+    @Value("${neo4j.password}")
+    private String password;
+
+    // With virtual threads every request gets its own thread, so the pool is what bounds the load on Neo4j:
+    // requests beyond the pool size wait for a connection instead of for a Tomcat thread
+    @Value("${neo4j.pool.max-size}")
+    private int maxConnectionPoolSize;
+
+    @Value("${neo4j.pool.acquisition-timeout-seconds}")
+    private long connectionAcquisitionTimeoutSeconds;
+
+    @Value("${neo4j.pool.max-connection-lifetime-seconds}")
+    private long maxConnectionLifetimeSeconds;
 
-    private static final String NEO4J_URI = System.getenv().getOrDefault("NEO4J_URI", "bolt://localhost:7687");
-    private static final String NEO4J_USER = System.getenv().getOrDefault("NEO4J_USER", "neo4j");
-    private static final String NEO4J_PASSWORD = System.getenv().getOrDefault("NEO4J_PASSWORD", "password");
+    // Negative disables the check, zero tests every connection, positive tests connections idle for that long
+    @Value("${neo4j.pool.liveness-check-timeout-seconds}")
+    private long livenessCheckTimeoutSeconds;
+
+    @Value("${neo4j.connection-timeout-seconds}")
+    private long connectionTimeoutSeconds;
+
+    @Value("${neo4j.fetch-size}")
+    private long fetchSize;
+
+    @Value("${neo4j.metrics.enabled}")
+    private boolean metricsEnabled;
 
     @Bean
     public Driver neo4jDriver() {
-        return GraphDatabase.driver(NEO4J_URI, AuthTokens.basic(NEO4J_USER, NEO4J_PASSWORD));
+        Config.ConfigBuilder config = Config.builder()
+                .withMaxConnectionPoolSize(maxConnectionPoolSize)
+                .withConnectionAcquisitionTimeout(connectionAcquisitionTimeoutSeconds, TimeUnit.SECONDS)
+                .withMaxConnectionLifetime(maxConnectionLifetimeSeconds, TimeUnit.SECONDS)
+                .withConnectionTimeout(connectionTimeoutSeconds, TimeUnit.SECONDS)
+                .withFetchSize(fetchSize);
+
+        if (livenessCheckTimeoutSeconds >= 0) {
+            config.withConnectionLivenessCheckTimeout(livenessCheckTimeoutSeconds, TimeUnit.SECONDS);
+        }
+
+        if (metricsEnabled) {
+            config.withDriverMetrics().withMetricsAdapter(MetricsAdapter.MICROMETER);
+        }
+
+        log.info("Connecting to {} (pool size: {}, acquisition timeout: {} s, fetch size: {})", uri,
+                maxConnectionPoolSize, connectionAcquisitionTimeoutSeconds, fetchSize);
+
+        return GraphDatabase.driver(uri, AuthTokens.basic(user, password), config.build());
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,58 @@
 package com.remitly.neo4j;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Arrays;
 
 @SpringBootApplication
 public class RemitlySwiftCodeApplication {
+    private static final Logger log = LoggerFactory.getLogger(RemitlySwiftCodeApplication.class);
 
     @Autowired
     private CsvImportService csvImportService;
 
-    public static void main(String[] args) {
+    @Autowired
+    private ImportProgress importProgress;
+
+    @Value("${IMPORT_CSV_ON_STARTUP:true}")
+    private boolean importCsvOnStartup;
+
+    @Value("${IMPORT_IN_BACKGROUND:true}")
+    private boolean importInBackground;
+
+    public static void main(String[] args) throws Exception {
+        // Offline conversion for neo4j-admin: needs neither the Spring context nor a database
+        if (args.length > 0 && AdminImportFileWriter.COMMAND.equals(args[0])) {
+            AdminImportFileWriter.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SpringApplication.run(RemitlySwiftCodeApplication.class, args);
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void importCsvDataAfterStartup() {
-        if (Boolean.parseBoolean(System.getenv().getOrDefault("IMPORT_CSV_ON_STARTUP", "true"))) {
+        if (importCsvOnStartup && importInBackground) {
+            // The server already accepts requests; the csvImport health indicator keeps readiness DOWN meanwhile
+            importProgress.starting();
+            Thread importThread = new Thread(() -> {
+                try {
+                    csvImportService.importCsvData();
+                } catch (RuntimeException e) {
+                    log.error("CSV import failed", e);
+                }
+            }, "csv-import");
+            importThread.start();
+        } else if (importCsvOnStartup) {
             csvImportService.importCsvData();
+        } else {
+            csvImportService.createConstraints();
         }
     }
-}
\ No newline at end of file
+}
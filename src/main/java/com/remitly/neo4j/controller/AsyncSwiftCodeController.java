@@ -0,0 +1,159 @@
+package com.remitly.neo4j.controller;
+
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.MessageResponseDTO;
+import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import com.remitly.neo4j.exception.CountryNotFoundException;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import com.remitly.neo4j.exception.SwiftCodeAlreadyExistsException;
+import com.remitly.neo4j.exception.SwiftCodeNotFoundException;
+import com.remitly.neo4j.service.AsyncSwiftCodeService;
+import com.remitly.neo4j.service.CountrySnapshots;
+import com.remitly.neo4j.service.DatasetVersion;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link SwiftCodeController}, active when {@code api.execution-mode=async}. Handlers return
+ * a {@link CompletionStage}, so the servlet thread is released while Neo4j executes the query and the response is
+ * written once the stage completes. Responses are the same as in the blocking mode.
+ */
+@RestController
+@RequestMapping("/v1/swift-codes")
+@ConditionalOnProperty(name = "api.execution-mode", havingValue = "async")
+public class AsyncSwiftCodeController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    @Autowired
+    private AsyncSwiftCodeService swiftCodeService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private CountrySnapshots countrySnapshots;
+
+    /**
+     * Retrieves details for a specific SWIFT code, answering a matching {@code If-None-Match} with 304 as
+     * {@link SwiftCodeController#getSwiftCodeDetails} does.
+     *
+     * @param swiftCode The SWIFT code to look up
+     * @return Bank details and branch information if applicable
+     */
+    @GetMapping("/{swiftCode}")
+    public CompletionStage<ResponseEntity<SwiftCodeDTO>> getSwiftCodeDetails(
+            @PathVariable("swiftCode") String swiftCode, WebRequest request) {
+        if (SwiftCodeController.notModified(request, datasetVersion.global())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return swiftCodeService.getSwiftCodeDetails(swiftCode)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> unwrap(e) instanceof SwiftCodeNotFoundException
+                        ? ResponseEntity.notFound().build()
+                        : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+
+    /**
+     * Retrieves all SWIFT codes for a specific country, or a single page of them when {@code cursor} or
+     * {@code limit} is given. A matching {@code If-None-Match} is answered with 304, and the full listing is sent from
+     * its precomputed snapshot when there is one the client can decode. The snapshot is written before the request goes
+     * asynchronous, so it is transferred by this thread rather than by Tomcat's sendfile.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @param cursor      The nextCursor of the previous page
+     * @param limit       Maximum number of SWIFT codes per page
+     * @return Country details and all (or one page of) its SWIFT codes
+     */
+    @GetMapping("/country/{countryISO2}")
+    public CompletionStage<ResponseEntity<CountrySwiftCodesDTO>> getSwiftCodesByCountry(
+            @PathVariable("countryISO2") String countryISO2,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            ServletWebRequest request) {
+        DatasetVersion.Version version = datasetVersion.country(countryISO2);
+        if (cursor == null && limit == null
+                && SwiftCodeController.sendSnapshot(countrySnapshots, request, countryISO2, version, false)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (SwiftCodeController.notModified(request, version)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletionStage<CountrySwiftCodesDTO> countrySwiftCodes = cursor == null && limit == null
+                ? swiftCodeService.getSwiftCodesByCountry(countryISO2)
+                : swiftCodeService.getSwiftCodesByCountry(countryISO2, cursor,
+                        limit == null ? DEFAULT_PAGE_SIZE : limit);
+
+        return countrySwiftCodes
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof CountryNotFoundException) {
+                        return ResponseEntity.notFound().build();
+                    } else if (cause instanceof InvalidRequestException) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Creates a new SWIFT code entry.
+     *
+     * @param createDTO The SWIFT code data to create
+     * @return Success message
+     */
+    @PostMapping
+    public CompletionStage<ResponseEntity<MessageResponseDTO>> createSwiftCode(
+            @Valid @RequestBody SwiftCodeCreateDTO createDTO) {
+        return swiftCodeService.createSwiftCode(createDTO)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(new MessageResponseDTO("SWIFT code created successfully")))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof SwiftCodeAlreadyExistsException) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(new MessageResponseDTO(cause.getMessage()));
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new MessageResponseDTO("Failed to create SWIFT code: " + cause.getMessage()));
+                });
+    }
+
+    /**
+     * Deletes a SWIFT code entry.
+     *
+     * @param swiftCode The SWIFT code to delete
+     * @return Success message
+     */
+    @DeleteMapping("/{swiftCode}")
+    public CompletionStage<ResponseEntity<MessageResponseDTO>> deleteSwiftCode(
+            @PathVariable("swiftCode") String swiftCode) {
+        return swiftCodeService.deleteSwiftCode(swiftCode)
+                .thenApply(deleted -> ResponseEntity.ok(new MessageResponseDTO("SWIFT code deleted successfully")))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof SwiftCodeNotFoundException) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(new MessageResponseDTO(cause.getMessage()));
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new MessageResponseDTO("Failed to delete SWIFT code: " + cause.getMessage()));
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
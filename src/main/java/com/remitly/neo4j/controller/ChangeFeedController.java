@@ -0,0 +1,87 @@
+package com.remitly.neo4j.controller;
+
+import com.remitly.neo4j.dto.ChangesDTO;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import com.remitly.neo4j.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change feed of the SWIFT directory, for clients that keep their own copy: they load it once, then apply the
+ * changes after the sequence number they last applied instead of re-reading whole countries.
+ */
+@RestController
+@RequestMapping("/v1/swift-codes/changes")
+public class ChangeFeedController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Returns the changes after a sequence number. With {@code wait}, the request is held until the first change
+     * arrives or the wait is over (long polling); the servlet thread is released while it waits.
+     *
+     * @param after The last sequence the client has applied, 0 for the start of the log
+     * @param limit The maximum number of changes to return, from 1 to {@value ChangeFeedService#MAX_PAGE_SIZE}
+     * @param wait  Seconds to wait for a change when there is none yet, at most {@value #MAX_WAIT_SECONDS}
+     * @return The changes in sequence order and the sequence to continue after; 410 when the changes after
+     *         {@code after} are no longer retained
+     */
+    @GetMapping
+    public CompletionStage<ResponseEntity<ChangesDTO>> getChanges(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "wait", defaultValue = "0") int wait) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        checkAfter(after);
+        if (pageSize < 1 || pageSize > ChangeFeedService.MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + ChangeFeedService.MAX_PAGE_SIZE);
+        }
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new InvalidRequestException("Wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds");
+        }
+
+        return changeFeedService.awaitChanges(after, pageSize, TimeUnit.SECONDS.toMillis(wait))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Streams the changes after a sequence number as Server-Sent Events. A reconnecting client resumes after the
+     * {@code Last-Event-ID} its EventSource sends, which takes precedence over {@code after}.
+     *
+     * @param after       The last sequence the client has applied, 0 for the start of the log
+     * @param lastEventId The id of the last event received before reconnecting
+     * @return {@code change} events with the sequence as id; an {@code expired} event ends the stream when the
+     *         changes after {@code after} are no longer retained
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        long resumeAfter = after;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidRequestException("Last-Event-ID must be a change sequence number");
+            }
+        }
+        checkAfter(resumeAfter);
+        return changeFeedService.subscribe(resumeAfter);
+    }
+
+    private static void checkAfter(long after) {
+        if (after < 0) {
+            throw new InvalidRequestException("After must not be negative");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.remitly.neo4j.controller;
+
+import com.remitly.neo4j.dto.InstitutionDTO;
+import com.remitly.neo4j.service.DatasetVersion;
+import com.remitly.neo4j.service.InstitutionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/swift-codes")
+public class InstitutionController {
+
+    @Autowired
+    private InstitutionService institutionService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * Resolves any SWIFT code to its institution: the headquarters and its branches, optionally filtered by country
+     * and town, in a single query. Conditional requests are answered with 304 like SWIFT code details.
+     *
+     * @param swiftCode   A SWIFT code of the institution, headquarters or branch
+     * @param countryISO2 Only return branches in this country
+     * @param town        Only return branches in this town
+     * @param fields      The fields to return for every bank, comma-separated; all when omitted
+     * @return The headquarters, null when the institution has none in the directory, and the branches
+     */
+    @GetMapping("/{swiftCode}/institution")
+    public ResponseEntity<InstitutionDTO> getInstitution(@PathVariable("swiftCode") String swiftCode,
+            @RequestParam(value = "countryISO2", required = false) String countryISO2,
+            @RequestParam(value = "town", required = false) String town,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            WebRequest request) {
+        if (SwiftCodeController.notModified(request, datasetVersion.global())) {
+            return null;
+        }
+        return ResponseEntity.ok(institutionService.getInstitution(swiftCode, countryISO2, town, fields));
+    }
+}
@@ -0,0 +1,61 @@
+package com.remitly.neo4j.controller;
+
+import com.remitly.neo4j.dto.BatchLookupRequestDTO;
+import com.remitly.neo4j.dto.BatchLookupResponseDTO;
+import com.remitly.neo4j.dto.BulkWriteResponseDTO;
+import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
+import com.remitly.neo4j.service.SwiftCodeBulkService;
+import com.remitly.neo4j.service.SwiftCodeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/swift-codes")
+public class SwiftCodeBatchController {
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeBulkService swiftCodeBulkService;
+
+    /**
+     * Resolves up to {@value BatchLookupRequestDTO#MAX_SWIFT_CODES} SWIFT codes in one call.
+     *
+     * @param request The SWIFT codes to look up and whether to expand headquarters branches
+     * @return Found entries in request order and the list of codes that do not exist
+     */
+    @PostMapping("/batch-lookup")
+    public ResponseEntity<BatchLookupResponseDTO> batchLookup(@Valid @RequestBody BatchLookupRequestDTO request) {
+        BatchLookupResponseDTO response = swiftCodeService.batchLookup(request.getSwiftCodes(),
+                request.isIncludeBranches());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Creates up to {@value SwiftCodeBulkService#MAX_ITEMS} SWIFT codes. Each item is validated and written
+     * independently; the response reports the outcome of every item.
+     *
+     * @param items The SWIFT codes to create
+     * @return Per-item results with success and failure counts
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkWriteResponseDTO> bulkCreate(@RequestBody List<SwiftCodeCreateDTO> items) {
+        return ResponseEntity.ok(swiftCodeBulkService.createSwiftCodes(items));
+    }
+
+    /**
+     * Deletes up to {@value SwiftCodeBulkService#MAX_ITEMS} SWIFT codes.
+     *
+     * @param swiftCodes The SWIFT codes to delete
+     * @return Per-item results with success and failure counts
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkWriteResponseDTO> bulkDelete(@RequestBody List<String> swiftCodes) {
+        return ResponseEntity.ok(swiftCodeBulkService.deleteSwiftCodes(swiftCodes));
+    }
+}
@@ -1,34 +1,77 @@
 package com.remitly.neo4j.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
 import com.remitly.neo4j.dto.MessageResponseDTO;
 import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
 import com.remitly.neo4j.dto.SwiftCodeDTO;
 import com.remitly.neo4j.exception.CountryNotFoundException;
+import com.remitly.neo4j.exception.InvalidRequestException;
 import com.remitly.neo4j.exception.SwiftCodeAlreadyExistsException;
 import com.remitly.neo4j.exception.SwiftCodeNotFoundException;
+import com.remitly.neo4j.service.CountrySnapshots;
+import com.remitly.neo4j.service.CountrySwiftCodesCursor;
+import com.remitly.neo4j.service.DatasetVersion;
 import com.remitly.neo4j.service.SwiftCodeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 
 @RestController
 @RequestMapping("/v1/swift-codes")
+@ConditionalOnProperty(name = "api.execution-mode", havingValue = "blocking", matchIfMissing = true)
 public class SwiftCodeController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // Request attributes of Tomcat's sendfile support, as used by its DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private SwiftCodeService swiftCodeService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private CountrySnapshots countrySnapshots;
+
     /**
-     * Retrieves details for a specific SWIFT code.
+     * Retrieves details for a specific SWIFT code. The response carries the global dataset version as ETag, since
+     * the branches of a headquarters may be in any country; a matching {@code If-None-Match} or
+     * {@code If-Modified-Since} is answered with 304 without querying Neo4j.
      *
      * @param swiftCode The SWIFT code to look up
      * @return Bank details and branch information if applicable
      */
     @GetMapping("/{swiftCode}")
-    public ResponseEntity<SwiftCodeDTO> getSwiftCodeDetails(@PathVariable("swiftCode") String swiftCode) {
+    public ResponseEntity<SwiftCodeDTO> getSwiftCodeDetails(@PathVariable("swiftCode") String swiftCode,
+            WebRequest request) {
+        if (notModified(request, datasetVersion.global())) {
+            return null;
+        }
         try {
             SwiftCodeDTO swiftCodeDetails = swiftCodeService.getSwiftCodeDetails(swiftCode);
             return ResponseEntity.ok(swiftCodeDetails);
@@ -40,24 +83,85 @@ public class SwiftCodeController {
     }
 
     /**
-     * Retrieves all SWIFT codes for a specific country.
+     * Retrieves all SWIFT codes for a specific country. When {@code cursor} or {@code limit} is given, a single
+     * page is returned together with the cursor of the next page. The response carries the country's dataset version
+     * as ETag and is answered with 304 like {@link #getSwiftCodeDetails}. The full listing is sent from its
+     * precomputed snapshot when there is one the client can decode.
      *
      * @param countryISO2 The ISO2 country code
-     * @return Country details and all its SWIFT codes
+     * @param cursor      The nextCursor of the previous page
+     * @param limit       Maximum number of SWIFT codes per page
+     * @return Country details and all (or one page of) its SWIFT codes
      */
     @GetMapping("/country/{countryISO2}")
     public ResponseEntity<CountrySwiftCodesDTO> getSwiftCodesByCountry(
-            @PathVariable("countryISO2") String countryISO2) {
+            @PathVariable("countryISO2") String countryISO2,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            ServletWebRequest request) {
+        DatasetVersion.Version version = datasetVersion.country(countryISO2);
+        if (cursor == null && limit == null && sendSnapshot(countrySnapshots, request, countryISO2, version, true)) {
+            return null;
+        }
+        if (notModified(request, version)) {
+            return null;
+        }
         try {
-            CountrySwiftCodesDTO countrySwiftCodes = swiftCodeService.getSwiftCodesByCountry(countryISO2);
+            CountrySwiftCodesDTO countrySwiftCodes = cursor == null && limit == null
+                    ? swiftCodeService.getSwiftCodesByCountry(countryISO2)
+                    : swiftCodeService.getSwiftCodesByCountry(countryISO2, cursor,
+                            limit == null ? DEFAULT_PAGE_SIZE : limit);
             return ResponseEntity.ok(countrySwiftCodes);
         } catch (CountryNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (InvalidRequestException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Streams all SWIFT codes for a specific country. The body has the same shape as the non-streaming response
+     * but is written as the records come off the Neo4j cursor, without building the list in memory.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @return Country details and all its SWIFT codes, written incrementally
+     */
+    @GetMapping(value = "/country/{countryISO2}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamSwiftCodesByCountry(
+            @PathVariable("countryISO2") String countryISO2, WebRequest request) {
+        if (notModified(request, datasetVersion.country(countryISO2))) {
+            return null;
+        }
+        CountrySwiftCodesCursor countryCursor;
+        try {
+            countryCursor = swiftCodeService.openSwiftCodesByCountry(countryISO2);
+        } catch (CountryNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (countryCursor;
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.writeStartObject();
+                generator.writeStringField("countryISO2", countryCursor.getCountryISO2());
+                generator.writeStringField("countryName", countryCursor.getCountryName());
+                generator.writeArrayFieldStart("swiftCodes");
+                while (countryCursor.hasNext()) {
+                    generator.writeObject(countryCursor.next());
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * Creates a new SWIFT code entry.
      *
@@ -102,4 +206,76 @@ public class SwiftCodeController {
                     .body(new MessageResponseDTO("Failed to delete SWIFT code: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the ETag and Last-Modified headers of the version and checks the request's preconditions against them.
+     *
+     * @param version The dataset version of the resource, null when it is not known
+     * @return true if the response has been set to 304 Not Modified
+     */
+    static boolean notModified(WebRequest request, DatasetVersion.Version version) {
+        return version != null && request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    /**
+     * Answers a full country listing from its {@link CountrySnapshots snapshot} when there is one for the current
+     * version in an encoding the client accepts. The file is handed to Tomcat's sendfile, which copies it from the
+     * page cache to the socket without passing it through the JVM; otherwise it is written by a channel transfer.
+     *
+     * @param version  The current version of the country's listing, null when it is not known
+     * @param sendfile false for handlers whose requests go asynchronous, which Tomcat's sendfile does not serve
+     * @return true if the response has been written, including 304 Not Modified
+     */
+    static boolean sendSnapshot(CountrySnapshots countrySnapshots, ServletWebRequest request, String countryISO2,
+            DatasetVersion.Version version, boolean sendfile) {
+        if (!countrySnapshots.isEnabled()) {
+            return false;
+        }
+        HttpServletRequest servletRequest = request.getRequest();
+        HttpServletResponse response = request.getResponse();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        CountrySnapshots.Snapshot snapshot = countrySnapshots.find(countryISO2, version,
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (snapshot == null || !"GET".equals(servletRequest.getMethod())) {
+            return false;
+        }
+        if (notModified(request, snapshot.version())) {
+            return true;
+        }
+
+        if (sendfile && Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT))) {
+            // Replaced snapshot files are only deleted after a grace period, so the file is still there when Tomcat
+            // opens it after the handler has returned
+            setSnapshotHeaders(response, snapshot);
+            servletRequest.setAttribute(SENDFILE_FILENAME, snapshot.path().toString());
+            servletRequest.setAttribute(SENDFILE_START, 0L);
+            servletRequest.setAttribute(SENDFILE_END, snapshot.size());
+            return true;
+        }
+
+        FileChannel file;
+        try {
+            file = FileChannel.open(snapshot.path());
+        } catch (IOException e) {
+            return false;
+        }
+        try (file) {
+            setSnapshotHeaders(response, snapshot);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < snapshot.size()) {
+                position += file.transferTo(position, snapshot.size() - position, out);
+            }
+        } catch (IOException e) {
+            // The client went away
+        }
+        return true;
+    }
+
+    private static void setSnapshotHeaders(HttpServletResponse response, CountrySnapshots.Snapshot snapshot) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, snapshot.encoding());
+        response.setContentLengthLong(snapshot.size());
+    }
+}
@@ -0,0 +1,54 @@
+package com.remitly.neo4j.controller;
+
+import com.remitly.neo4j.dto.SearchResultsDTO;
+import com.remitly.neo4j.service.DatasetVersion;
+import com.remitly.neo4j.service.SwiftCodeSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/v1/swift-codes/search")
+public class SwiftCodeSearchController {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    @Autowired
+    private SwiftCodeSearchService swiftCodeSearchService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * Searches banks by name or by SWIFT code prefix; exactly one of them must be given. Results carry the global
+     * dataset version as ETag, so a repeated type-ahead query is answered with 304 without querying Neo4j.
+     *
+     * @param name        Words of the bank name, matched case-insensitively, the last one also as a prefix
+     * @param swiftCode   Leading characters of the SWIFT code
+     * @param countryISO2 Restricts the results to one country
+     * @param offset      Number of results to skip, at most {@value SwiftCodeSearchService#MAX_OFFSET}
+     * @param limit       Maximum number of results, from 1 to {@value SwiftCodeSearchService#MAX_LIMIT}
+     * @return Matching banks, best match first for names and in code order for prefixes, with the offset of the next
+     *         page when more results follow
+     */
+    @GetMapping
+    public ResponseEntity<SearchResultsDTO> search(
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "swiftCode", required = false) String swiftCode,
+            @RequestParam(value = "countryISO2", required = false) String countryISO2,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_LIMIT) int limit,
+            WebRequest request) {
+        // A malformed search is rejected even when the client holds the current version
+        swiftCodeSearchService.checkSearch(name, swiftCode, offset, limit);
+        if (SwiftCodeController.notModified(request, datasetVersion.global())) {
+            return null;
+        }
+
+        SearchResultsDTO results = name != null
+                ? swiftCodeSearchService.searchByName(name, countryISO2, offset, limit)
+                : swiftCodeSearchService.searchBySwiftCodePrefix(swiftCode, countryISO2, offset, limit);
+        return ResponseEntity.ok(results);
+    }
+}
@@ -0,0 +1,33 @@
+package com.remitly.neo4j.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchLookupRequestDTO {
+    public static final int MAX_SWIFT_CODES = 1000;
+
+    @NotEmpty(message = "At least one SWIFT code is required")
+    @Size(max = MAX_SWIFT_CODES, message = "At most " + MAX_SWIFT_CODES + " SWIFT codes can be looked up at once")
+    private List<@NotBlank(message = "SWIFT codes must not be blank") String> swiftCodes;
+
+    private boolean includeBranches = true;
+
+    public List<String> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public void setSwiftCodes(List<String> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+
+    public boolean isIncludeBranches() {
+        return includeBranches;
+    }
+
+    public void setIncludeBranches(boolean includeBranches) {
+        this.includeBranches = includeBranches;
+    }
+}
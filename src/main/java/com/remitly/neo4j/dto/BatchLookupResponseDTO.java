@@ -0,0 +1,32 @@
+package com.remitly.neo4j.dto;
+
+import java.util.List;
+
+public class BatchLookupResponseDTO {
+    private List<SwiftCodeDTO> found;
+    private List<String> missing;
+
+    public BatchLookupResponseDTO() {
+    }
+
+    public BatchLookupResponseDTO(List<SwiftCodeDTO> found, List<String> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    public List<SwiftCodeDTO> getFound() {
+        return found;
+    }
+
+    public void setFound(List<SwiftCodeDTO> found) {
+        this.found = found;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,58 @@
+package com.remitly.neo4j.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class BulkItemResultDTO {
+    public enum Status {
+        CREATED, DELETED, ALREADY_EXISTS, NOT_FOUND, DUPLICATE, INVALID, FAILED
+    }
+
+    private int index;
+    private String swiftCode;
+    private Status status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+
+    public BulkItemResultDTO() {
+    }
+
+    public BulkItemResultDTO(int index, String swiftCode, Status status, String message) {
+        this.index = index;
+        this.swiftCode = swiftCode;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
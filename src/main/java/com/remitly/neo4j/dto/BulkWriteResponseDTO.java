@@ -0,0 +1,48 @@
+package com.remitly.neo4j.dto;
+
+import java.util.List;
+
+public class BulkWriteResponseDTO {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> results;
+
+    public BulkWriteResponseDTO() {
+    }
+
+    public BulkWriteResponseDTO(List<BulkItemResultDTO> results) {
+        this.results = results;
+        for (BulkItemResultDTO result : results) {
+            if (result.getStatus() == BulkItemResultDTO.Status.CREATED
+                    || result.getStatus() == BulkItemResultDTO.Status.DELETED) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkItemResultDTO> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,73 @@
+package com.remitly.neo4j.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One entry of the change log. CREATED and UPDATED carry the SWIFT code to fetch again, DELETED the code to drop;
+ * RELOADED has no code and means the whole directory was replaced by a CSV import.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+    public enum Type {
+        CREATED, UPDATED, DELETED, RELOADED
+    }
+
+    private long sequence;
+    private Type type;
+    private String swiftCode;
+    private String countryISO2;
+    private OffsetDateTime changedAt;
+
+    public ChangeEventDTO() {
+    }
+
+    public ChangeEventDTO(long sequence, Type type, String swiftCode, String countryISO2, OffsetDateTime changedAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.swiftCode = swiftCode;
+        this.countryISO2 = countryISO2;
+        this.changedAt = changedAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public void setCountryISO2(String countryISO2) {
+        this.countryISO2 = countryISO2;
+    }
+
+    public OffsetDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(OffsetDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
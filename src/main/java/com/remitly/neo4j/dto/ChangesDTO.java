@@ -0,0 +1,56 @@
+package com.remitly.neo4j.dto;
+
+import java.util.List;
+
+/**
+ * A page of the change log. {@code lastSequence} is the sequence of the last change in the page, or the requested
+ * {@code after} when the page is empty, and is what the next request passes as {@code after}.
+ */
+public class ChangesDTO {
+    private List<ChangeEventDTO> changes;
+    private long lastSequence;
+    private long latestSequence;
+    private boolean hasMore;
+
+    public ChangesDTO() {
+    }
+
+    public ChangesDTO(List<ChangeEventDTO> changes, long after, long latestSequence) {
+        this.changes = changes;
+        this.lastSequence = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        this.latestSequence = Math.max(latestSequence, lastSequence);
+        this.hasMore = this.lastSequence < this.latestSequence;
+    }
+
+    public List<ChangeEventDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeEventDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public void setLatestSequence(long latestSequence) {
+        this.latestSequence = latestSequence;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
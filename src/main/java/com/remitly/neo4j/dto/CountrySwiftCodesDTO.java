@@ -1,5 +1,7 @@
 package com.remitly.neo4j.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class CountrySwiftCodesDTO {
@@ -7,6 +9,10 @@ public class CountrySwiftCodesDTO {
     private String countryName;
     private List<SwiftCodeSummaryDTO> swiftCodes;
 
+    // Only present on paginated responses that have a following page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public String getCountryISO2() {
         return countryISO2;
     }
@@ -30,6 +36,15 @@ public class CountrySwiftCodesDTO {
     public void setSwiftCodes(List<SwiftCodeSummaryDTO> swiftCodes) {
         this.swiftCodes = swiftCodes;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public static class SwiftCodeSummaryDTO {
         private String address;
         private String bankName;
@@ -0,0 +1,48 @@
+package com.remitly.neo4j.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The institution a SWIFT code belongs to: its headquarters and branches. Banks are maps holding only the requested
+ * fields.
+ */
+public class InstitutionDTO {
+    private String swiftCode;
+    // Null when the institution has no headquarters in the directory
+    private Map<String, Object> headquarters;
+    private List<Map<String, Object>> branches;
+
+    public InstitutionDTO() {
+    }
+
+    public InstitutionDTO(String swiftCode, Map<String, Object> headquarters, List<Map<String, Object>> branches) {
+        this.swiftCode = swiftCode;
+        this.headquarters = headquarters;
+        this.branches = branches;
+    }
+
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+    }
+
+    public Map<String, Object> getHeadquarters() {
+        return headquarters;
+    }
+
+    public void setHeadquarters(Map<String, Object> headquarters) {
+        this.headquarters = headquarters;
+    }
+
+    public List<Map<String, Object>> getBranches() {
+        return branches;
+    }
+
+    public void setBranches(List<Map<String, Object>> branches) {
+        this.branches = branches;
+    }
+}
@@ -0,0 +1,40 @@
+package com.remitly.neo4j.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A page of search results: best match first for a name search, in SWIFT code order for a prefix search.
+ */
+public class SearchResultsDTO {
+    private List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results;
+
+    // Only present when more results follow; the offset to request the next page with
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextOffset;
+
+    public SearchResultsDTO() {
+    }
+
+    public SearchResultsDTO(List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results, Integer nextOffset) {
+        this.results = results;
+        this.nextOffset = nextOffset;
+    }
+
+    public List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results) {
+        this.results = results;
+    }
+
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(Integer nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+}
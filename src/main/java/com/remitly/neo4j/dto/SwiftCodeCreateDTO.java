@@ -1,8 +1,8 @@
 package com.remitly.neo4j.dto;
 
+import com.remitly.neo4j.swift.ValidSwiftCode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Size;
 
 public class SwiftCodeCreateDTO {
     @NotBlank(message = "Address is required")
@@ -12,7 +12,7 @@ public class SwiftCodeCreateDTO {
     private String bankName;
 
     @NotBlank(message = "Country ISO2 code is required")
-    @Size(min = 2, max = 2, message = "Country ISO2 code must be exactly 2 characters")
+    @Pattern(regexp = "[A-Za-z]{2}", message = "Country ISO2 code must be exactly 2 letters")
     private String countryISO2;
 
     @NotBlank(message = "Country name is required")
@@ -21,8 +21,7 @@ public class SwiftCodeCreateDTO {
     private boolean isHeadquarter;
 
     @NotBlank(message = "SWIFT code is required")
-    @Pattern(regexp = "^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$", 
-             message = "SWIFT code must be either 8 or 11 characters, with first 6 characters being letters")
+    @ValidSwiftCode
     private String swiftCode;
     
     public String getAddress() {
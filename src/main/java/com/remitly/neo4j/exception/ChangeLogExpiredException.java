@@ -0,0 +1,7 @@
+package com.remitly.neo4j.exception;
+
+public class ChangeLogExpiredException extends RuntimeException {
+    public ChangeLogExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.remitly.neo4j.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,272 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import com.remitly.neo4j.exception.CountryNotFoundException;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import com.remitly.neo4j.exception.SwiftCodeAlreadyExistsException;
+import com.remitly.neo4j.exception.SwiftCodeNotFoundException;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.exceptions.ClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.remitly.neo4j.service.SwiftCodeQueries.*;
+
+/**
+ * Non-blocking counterpart of {@link SwiftCodeService} built on the driver's {@link AsyncSession}. No thread waits
+ * for Bolt I/O: every method returns as soon as the query is sent and completes on a driver event loop thread.
+ * <p>
+ * Enabled with {@code api.execution-mode=async}. Failures complete the returned stage exceptionally with the same
+ * exceptions the blocking service throws.
+ */
+@Service
+@ConditionalOnProperty(name = "api.execution-mode", havingValue = "async")
+public class AsyncSwiftCodeService {
+    private static final Logger log = LoggerFactory.getLogger(AsyncSwiftCodeService.class);
+
+    @Autowired
+    private Driver neo4jDriver;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftDirectory swiftDirectory;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * Retrieves details for a specific SWIFT code, served from {@link SwiftCodeCache} when possible.
+     *
+     * @param swiftCode The SWIFT code to look up
+     * @return Stage completing with the bank details, or with {@link SwiftCodeNotFoundException}
+     */
+    public CompletionStage<SwiftCodeDTO> getSwiftCodeDetails(String swiftCode) {
+        log.info("Fetching details for SWIFT code: {}", swiftCode);
+
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            return supply(() -> {
+                SwiftCodeDTO dto = directory.details(swiftCode, true);
+                if (dto == null) {
+                    throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
+                }
+                return dto;
+            });
+        }
+
+        SwiftCodeDTO cached = swiftCodeCache.getIfPresent(swiftCode);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation = swiftCodeCache.generation();
+        return read(DETAILS_QUERY, Map.of("swiftCode", swiftCode)).thenApply(records -> {
+            if (records.isEmpty()) {
+                throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
+            }
+            SwiftCodeDTO dto = toDetails(records.get(0), swiftCode);
+            swiftCodeCache.put(swiftCode, dto, generation);
+            return dto;
+        });
+    }
+
+    /**
+     * Retrieves all SWIFT codes for a specific country.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @return Stage completing with the country listing, or with {@link CountryNotFoundException}
+     */
+    public CompletionStage<CountrySwiftCodesDTO> getSwiftCodesByCountry(String countryISO2) {
+        log.info("Fetching SWIFT codes for country ISO2 code: {}", countryISO2);
+
+        String upperCaseCountryISO2 = countryISO2.toUpperCase();
+
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            return supply(() -> directory.country(upperCaseCountryISO2, null, null, Integer.MAX_VALUE));
+        }
+
+        return read(COUNTRY_QUERY, Map.of("iso2Code", upperCaseCountryISO2))
+                .thenApply(records -> toCountryDTO(records.iterator(), upperCaseCountryISO2, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Retrieves one page of SWIFT codes for a specific country.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @param cursor      The nextCursor of the previous page, or null for the first page
+     * @param limit       Maximum number of SWIFT codes on the page
+     * @return Stage completing with the page, or with {@link CountryNotFoundException} or
+     *         {@link InvalidRequestException}
+     * @see SwiftCodeService#getSwiftCodesByCountry(String, String, int)
+     */
+    public CompletionStage<CountrySwiftCodesDTO> getSwiftCodesByCountry(String countryISO2, String cursor, int limit) {
+        log.info("Fetching SWIFT codes for country ISO2 code: {} (cursor: {}, limit: {})", countryISO2, cursor, limit);
+
+        String upperCaseCountryISO2 = countryISO2.toUpperCase();
+
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            return supply(() -> {
+                Map<String, Object> params = pageParams(upperCaseCountryISO2, cursor, limit);
+                return directory.country(upperCaseCountryISO2, (String) params.get("afterName"),
+                        (String) params.get("afterSwiftCode"), limit);
+            });
+        }
+
+        return supply(() -> pageParams(upperCaseCountryISO2, cursor, limit))
+                .thenCompose(params -> read(COUNTRY_PAGE_QUERY, params))
+                .thenApply(records -> toCountryDTO(records.iterator(), upperCaseCountryISO2, limit));
+    }
+
+    /**
+     * Creates a new SWIFT code entry in the database.
+     *
+     * @param createDTO The SWIFT code data to create
+     * @return Stage completing with true, or with {@link SwiftCodeAlreadyExistsException}
+     * @see SwiftCodeService#createSwiftCode(SwiftCodeCreateDTO)
+     */
+    public CompletionStage<Boolean> createSwiftCode(SwiftCodeCreateDTO createDTO) {
+        log.info("Creating new SWIFT code: {}", createDTO.getSwiftCode());
+
+        String swiftCode = createDTO.getSwiftCode();
+
+        datasetVersion.suspend();
+        return supply(() -> createParams(createDTO))
+                .thenCompose(params -> write(CREATE_QUERY, params, List.of(params),
+                        records -> records.get(0).get("created").asLong() > 0
+                                ? List.of(ChangeLog.change(ChangeEventDTO.Type.CREATED, swiftCode,
+                                        (String) params.get("iso2Code")))
+                                : List.of()))
+                .handle((records, error) -> {
+                    swiftCodeCache.invalidate(swiftCode);
+                    swiftDirectory.markStale();
+                    datasetVersion.resume();
+                    changeFeedService.changesCommitted();
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (cause instanceof ClientException clientException
+                                && CONSTRAINT_VALIDATION_FAILED.equals(clientException.code())) {
+                            throw new SwiftCodeAlreadyExistsException("SWIFT code already exists: " + swiftCode);
+                        }
+                        throw asCompletionException(cause);
+                    }
+                    if (records.get(0).get("created").asLong() == 0) {
+                        throw new SwiftCodeAlreadyExistsException("SWIFT code already exists: " + swiftCode);
+                    }
+                    return true;
+                });
+    }
+
+    /**
+     * Deletes a SWIFT code from the database together with all its relationships.
+     *
+     * @param swiftCode The SWIFT code to delete
+     * @return Stage completing with true, or with {@link SwiftCodeNotFoundException}
+     */
+    public CompletionStage<Boolean> deleteSwiftCode(String swiftCode) {
+        log.info("Deleting SWIFT code: {}", swiftCode);
+
+        datasetVersion.suspend();
+        return write(DELETE_QUERY, Map.of("swiftCode", swiftCode),
+                List.of(ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode, null)), records -> {
+            Record record = records.get(0);
+            return record.get("deleted").asLong() > 0
+                    ? List.of(ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode,
+                            record.get("iso2Code", (String) null)))
+                    : List.of();
+        }).handle((records, error) -> {
+            swiftCodeCache.invalidate(swiftCode);
+            swiftDirectory.markStale();
+            datasetVersion.resume();
+            changeFeedService.changesCommitted();
+            if (error != null) {
+                throw asCompletionException(unwrap(error));
+            }
+            if (records.get(0).get("deleted").asLong() == 0) {
+                throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
+            }
+            return true;
+        });
+    }
+
+    private CompletionStage<List<Record>> read(String query, Map<String, Object> params) {
+        return withSession(session -> session.executeReadAsync(
+                tx -> tx.runAsync(query, params).thenCompose(ResultCursor::listAsync)));
+    }
+
+    /**
+     * Runs a write and appends the changes derived from its records to the {@link ChangeLog} in the same transaction.
+     *
+     * @param locked The changes the write can make, whose countries are locked first
+     */
+    private CompletionStage<List<Record>> write(String query, Map<String, Object> params,
+            List<Map<String, Object>> locked, Function<List<Record>, List<Map<String, Object>>> changes) {
+        return withSession(session -> session.executeWriteAsync(tx -> ChangeLog.lockCountriesAsync(tx, locked)
+                .thenCompose(ignored -> tx.runAsync(query, params))
+                .thenCompose(ResultCursor::listAsync)
+                .thenCompose(records -> ChangeLog.appendAsync(tx, changes.apply(records))
+                        .thenApply(ignored -> records))));
+    }
+
+    /**
+     * Runs work in a new session and closes the session once the work completes, whatever the outcome.
+     */
+    private <T> CompletionStage<T> withSession(Function<AsyncSession, CompletionStage<T>> work) {
+        AsyncSession session = neo4jDriver.session(AsyncSession.class);
+
+        CompletionStage<T> stage;
+        try {
+            stage = work.apply(session);
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        return stage.handle((value, error) -> session.closeAsync().thenApply(ignored -> {
+            if (error != null) {
+                throw asCompletionException(unwrap(error));
+            }
+            return value;
+        })).thenCompose(Function.identity());
+    }
+
+    private static <T> CompletionStage<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.completedFuture(supplier.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static CompletionException asCompletionException(Throwable error) {
+        return error instanceof CompletionException completionException
+                ? completionException
+                : new CompletionException(error);
+    }
+}
@@ -0,0 +1,293 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import com.remitly.neo4j.dto.ChangesDTO;
+import com.remitly.neo4j.exception.ChangeLogExpiredException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Serves the change log written through {@link ChangeLog} to clients that keep their own copy of the directory.
+ * <p>
+ * Clients poll with the last sequence they have applied and get the changes after it, waiting up to a timeout when
+ * there are none yet, or subscribe to a Server-Sent Events stream. Waiting clients are served by a single
+ * {@code change-feed} thread: it checks the latest sequence once per second, or right after a write of this instance,
+ * and only reads the log for clients that are behind, so idle clients cost no queries. Writes of other instances are
+ * seen by the same check.
+ * <p>
+ * Events older than {@code CHANGE_LOG_RETENTION_DAYS} are deleted. A client asking for changes that were deleted gets
+ * {@link ChangeLogExpiredException} and has to reload its copy.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+    private static final long HEARTBEAT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(15);
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long PRUNE_INTERVAL_MINUTES = 60;
+    private static final int PRUNE_BATCH_SIZE = 10000;
+    private static final long RETENTION_DAYS = Long.parseLong(System.getenv().getOrDefault("CHANGE_LOG_RETENTION_DAYS", "7"));
+
+    private final Driver neo4jDriver;
+    private final DatasetVersion datasetVersion;
+    private final ScheduledExecutorService feeder;
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private long lastHeartbeatNanos = System.nanoTime();
+
+    private record Waiter(long after, int limit, long deadlineNanos, CompletableFuture<ChangesDTO> result) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long cursor;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    public ChangeFeedService(Driver neo4jDriver, DatasetVersion datasetVersion, MeterRegistry meterRegistry) {
+        this.neo4jDriver = neo4jDriver;
+        this.datasetVersion = datasetVersion;
+        this.feeder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        feeder.scheduleWithFixedDelay(this::check, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        feeder.scheduleWithFixedDelay(this::prune, 1, PRUNE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+
+        Gauge.builder("swift.changes.subscribers", subscribers, Queue::size)
+                .description("Open change stream subscriptions").register(meterRegistry);
+        Gauge.builder("swift.changes.waiting", waiters, Queue::size)
+                .description("Change requests waiting for a change").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        feeder.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Wakes waiting clients and invalidates the {@link DatasetVersion} after a write of this instance; safe to call
+     * whether or not anything was committed.
+     */
+    public void changesCommitted() {
+        datasetVersion.markStale();
+        if (checkScheduled.compareAndSet(false, true)) {
+            feeder.execute(this::check);
+        }
+    }
+
+    /**
+     * Returns the changes after a sequence number.
+     *
+     * @param after The last sequence the client has applied, 0 for the start of the log
+     * @param limit The maximum number of changes, at most {@link #MAX_PAGE_SIZE}
+     * @throws ChangeLogExpiredException if changes after {@code after} were deleted, or {@code after} lies beyond the
+     *                                   end of the log (for example after the database was replaced)
+     */
+    public ChangesDTO getChanges(long after, int limit) {
+        try (Session session = neo4jDriver.session()) {
+            return session.executeRead(tx -> {
+                // The latest sequence is read first: every change up to it is committed, so a gap in the page that
+                // follows is a deleted change and not one still being written
+                long latest = tx.run(ChangeLog.LATEST_SEQUENCE_QUERY).single().get("latest").asLong();
+                List<ChangeEventDTO> changes = new ArrayList<>();
+                if (after < latest) {
+                    tx.run(ChangeLog.CHANGES_QUERY, Map.of("after", after, "limit", limit))
+                            .forEachRemaining(record -> changes.add(new ChangeEventDTO(
+                                    record.get("sequence").asLong(),
+                                    ChangeEventDTO.Type.valueOf(record.get("type").asString()),
+                                    nullableString(record.get("swiftCode")),
+                                    nullableString(record.get("countryISO2")),
+                                    record.get("at").asOffsetDateTime())));
+                }
+                checkContinuous(after, latest, changes);
+                return new ChangesDTO(changes, after, latest);
+            });
+        }
+    }
+
+    /**
+     * Returns the changes after a sequence number, waiting up to {@code timeoutMillis} for the first one.
+     *
+     * @return Stage completing with the changes, with an empty page after the timeout, or with
+     *         {@link ChangeLogExpiredException}
+     */
+    public CompletionStage<ChangesDTO> awaitChanges(long after, int limit, long timeoutMillis) {
+        ChangesDTO changes;
+        try {
+            changes = getChanges(after, limit);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!changes.getChanges().isEmpty() || timeoutMillis <= 0) {
+            return CompletableFuture.completedFuture(changes);
+        }
+
+        CompletableFuture<ChangesDTO> result = new CompletableFuture<>();
+        waiters.add(new Waiter(after, limit, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis),
+                result));
+        return result;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the changes after a sequence number. Every change is sent as a
+     * {@code change} event whose id is its sequence, so a reconnecting client resumes through {@code Last-Event-ID}.
+     * When the requested changes were deleted, a single {@code expired} event is sent and the stream is closed.
+     */
+    public SseEmitter subscribe(long after) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        Runnable remove = () -> {
+            subscriber.closed = true;
+            subscribers.remove(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        subscribers.add(subscriber);
+        changesCommitted();
+        return emitter;
+    }
+
+    private void check() {
+        checkScheduled.set(false);
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+
+        try {
+            long latest = latestSequence();
+            long now = System.nanoTime();
+
+            for (Waiter waiter : waiters) {
+                if (waiter.after() != latest) {
+                    complete(waiter, () -> getChanges(waiter.after(), waiter.limit()));
+                } else if (now - waiter.deadlineNanos() >= 0) {
+                    complete(waiter, () -> new ChangesDTO(List.of(), waiter.after(), latest));
+                }
+            }
+
+            boolean heartbeat = now - lastHeartbeatNanos >= HEARTBEAT_INTERVAL_NANOS;
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, latest, heartbeat);
+            }
+            if (heartbeat) {
+                lastHeartbeatNanos = now;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to check the change log: {}", e.getMessage());
+        }
+    }
+
+    private void complete(Waiter waiter, Supplier<ChangesDTO> changes) {
+        waiters.remove(waiter);
+        try {
+            waiter.result().complete(changes.get());
+        } catch (RuntimeException e) {
+            waiter.result().completeExceptionally(e);
+        }
+    }
+
+    private void send(Subscriber subscriber, long latest, boolean heartbeat) {
+        try {
+            while (!subscriber.closed && subscriber.cursor != latest) {
+                ChangesDTO page;
+                try {
+                    page = getChanges(subscriber.cursor, STREAM_PAGE_SIZE);
+                } catch (ChangeLogExpiredException e) {
+                    subscriber.emitter.send(SseEmitter.event().name("expired").data(e.getMessage()));
+                    subscriber.emitter.complete();
+                    return;
+                }
+                for (ChangeEventDTO change : page.getChanges()) {
+                    subscriber.emitter.send(SseEmitter.event().id(Long.toString(change.getSequence())).name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                subscriber.cursor = page.getLastSequence();
+                if (page.getChanges().isEmpty()) {
+                    break;
+                }
+            }
+            if (heartbeat && !subscriber.closed) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter callbacks remove it
+            subscriber.closed = true;
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private long latestSequence() {
+        try (Session session = neo4jDriver.session()) {
+            return session.executeRead(tx -> tx.run(ChangeLog.LATEST_SEQUENCE_QUERY).single().get("latest").asLong());
+        }
+    }
+
+    private void prune() {
+        try (Session session = neo4jDriver.session()) {
+            long total = 0;
+            long deleted;
+            do {
+                deleted = session.executeWrite(tx -> tx.run(ChangeLog.PRUNE_QUERY,
+                        Map.of("days", RETENTION_DAYS, "limit", PRUNE_BATCH_SIZE)).single().get("deleted").asLong());
+                total += deleted;
+            } while (deleted == PRUNE_BATCH_SIZE);
+            if (total > 0) {
+                log.info("Deleted {} change log events older than {} days", total, RETENTION_DAYS);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune the change log: {}", e.getMessage());
+        }
+    }
+
+    private static void checkContinuous(long after, long latest, List<ChangeEventDTO> changes) {
+        if (after > latest) {
+            throw new ChangeLogExpiredException("Sequence " + after + " is beyond the end of the change log ("
+                    + latest + "); reload all SWIFT codes and continue after " + latest);
+        }
+        boolean missing = changes.isEmpty() ? after < latest : changes.get(0).getSequence() != after + 1;
+        if (missing) {
+            throw new ChangeLogExpiredException("Changes after sequence " + after
+                    + " are no longer retained; reload all SWIFT codes and continue after " + latest);
+        }
+    }
+
+    private static String nullableString(Value value) {
+        return value.isNull() ? null : value.asString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import org.neo4j.driver.TransactionContext;
+import org.neo4j.driver.async.AsyncTransactionContext;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Statements that append to the change log read by {@link ChangeFeedService}.
+ * <p>
+ * Every write of the directory appends its changes in the same transaction, so an event exists exactly when its
+ * change was committed. Sequence numbers are taken from a single ChangeSequence node: incrementing it locks the node
+ * until commit, which serializes the writers and makes the sequence gapless and equal to the commit order. A reader
+ * that has seen sequence n has therefore seen every change up to n.
+ * <p>
+ * Appending also updates the Country nodes of the changes, and the writes before it lock them too. To keep concurrent
+ * writers from deadlocking, every transaction that appends first locks its countries in iso2 order with
+ * {@link #LOCK_COUNTRIES_QUERY}, so the ChangeSequence node is always the last lock taken.
+ */
+public final class ChangeLog {
+
+    /**
+     * Creates the sequence with a random epoch, which tells change logs of different databases apart, and stamps the
+     * countries without a recorded change with the current sequence, which their data is as of.
+     */
+    public static final String INIT_QUERY = "MERGE (s:ChangeSequence {id: 'swift'}) "
+            + "ON CREATE SET s.value = 0, s.epoch = randomUUID(), s.at = datetime() "
+            + "ON MATCH SET s.epoch = coalesce(s.epoch, randomUUID()) "
+            + "WITH s MATCH (c:Country) WHERE c.changeSequence IS NULL "
+            + "SET c.changeSequence = s.value, c.changedAt = coalesce(s.at, datetime())";
+
+    /**
+     * Locks, in iso2 order, the countries the rows of {@code $rows} can touch: the country of each row, when known, and
+     * the country its {@code swiftCode} is currently located in. Rows have the shape of {@link #APPEND_QUERY} rows.
+     */
+    public static final String LOCK_COUNTRIES_QUERY = "UNWIND $rows AS row "
+            + "OPTIONAL MATCH (:Bank {swiftCode: row.swiftCode})-[:LOCATED_IN]->(current:Country) "
+            + "WITH collect(row.iso2Code) + collect(current.iso2Code) AS iso2Codes "
+            + "UNWIND iso2Codes AS iso2Code "
+            + "WITH DISTINCT iso2Code ORDER BY iso2Code "
+            + "MATCH (c:Country {iso2Code: iso2Code}) "
+            + "SET c._lock = true REMOVE c._lock";
+
+    /**
+     * Locks every country in iso2 order, for writes that touch all of them.
+     */
+    public static final String LOCK_ALL_COUNTRIES_QUERY = "MATCH (c:Country) "
+            + "WITH c ORDER BY c.iso2Code "
+            + "SET c._lock = true REMOVE c._lock";
+
+    /**
+     * Appends one ChangeEvent per row of {@code $rows}; rows carry {@code changeType}, {@code swiftCode} and
+     * {@code iso2Code}, so the rows of the import batches can be passed as they are. The country of each row records
+     * the sequence of its latest change for {@link DatasetVersion}.
+     */
+    public static final String APPEND_QUERY = "MERGE (s:ChangeSequence {id: 'swift'}) "
+            + "ON CREATE SET s.value = 0, s.epoch = randomUUID() "
+            + "SET s.value = s.value + size($rows), s.at = datetime() "
+            + "WITH s.value - size($rows) AS base "
+            + "UNWIND range(0, size($rows) - 1) AS i "
+            + "WITH base + i + 1 AS sequence, $rows[i] AS row "
+            + "CREATE (:ChangeEvent {sequence: sequence, type: row.changeType, "
+            + "swiftCode: row.swiftCode, countryISO2: row.iso2Code, at: datetime()}) "
+            + "WITH sequence, row "
+            + "OPTIONAL MATCH (c:Country {iso2Code: row.iso2Code}) "
+            + "FOREACH (country IN CASE WHEN c IS NULL OR c.changeSequence >= sequence THEN [] ELSE [c] END "
+            + "| SET country.changeSequence = sequence, country.changedAt = datetime())";
+
+    /**
+     * Run after appending a RELOADED change: every country was rewritten by it.
+     */
+    public static final String RELOAD_COUNTRIES_QUERY = "MATCH (s:ChangeSequence {id: 'swift'}) "
+            + "MATCH (c:Country) "
+            + "SET c.changeSequence = s.value, c.changedAt = s.at";
+
+    static final String LATEST_SEQUENCE_QUERY = "OPTIONAL MATCH (s:ChangeSequence {id: 'swift'}) "
+            + "RETURN coalesce(s.value, 0) AS latest";
+
+    static final String CHANGES_QUERY = "MATCH (e:ChangeEvent) WHERE e.sequence > $after "
+            + "RETURN e.sequence AS sequence, e.type AS type, e.swiftCode AS swiftCode, "
+            + "e.countryISO2 AS countryISO2, e.at AS at "
+            + "ORDER BY e.sequence LIMIT $limit";
+
+    static final String PRUNE_QUERY = "MATCH (e:ChangeEvent) WHERE e.at < datetime() - duration({days: $days}) "
+            + "WITH e LIMIT $limit DELETE e RETURN count(*) AS deleted";
+
+    private ChangeLog() {
+    }
+
+    /**
+     * @param swiftCode The changed code, null for {@link ChangeEventDTO.Type#RELOADED}
+     * @param iso2Code  The country of the code, before the change for a deletion
+     * @return A row of {@link #APPEND_QUERY}
+     */
+    public static Map<String, Object> change(ChangeEventDTO.Type type, String swiftCode, String iso2Code) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("changeType", type.name());
+        row.put("swiftCode", swiftCode);
+        row.put("iso2Code", iso2Code);
+        return row;
+    }
+
+    /**
+     * Locks the countries of the changes a transaction is about to make; run it before any other statement.
+     *
+     * @param changes Rows of {@link #change}, with a null country where it is not known yet
+     */
+    public static void lockCountries(TransactionContext tx, List<Map<String, Object>> changes) {
+        tx.run(LOCK_COUNTRIES_QUERY, Map.of("rows", changes)).consume();
+    }
+
+    static CompletionStage<Void> lockCountriesAsync(AsyncTransactionContext tx, List<Map<String, Object>> changes) {
+        return tx.runAsync(LOCK_COUNTRIES_QUERY, Map.of("rows", changes))
+                .thenCompose(ResultCursor::consumeAsync)
+                .thenApply(summary -> null);
+    }
+
+    /**
+     * Appends the changes within the given transaction; does nothing, and takes no lock, when there are none.
+     */
+    public static void append(TransactionContext tx, List<Map<String, Object>> changes) {
+        if (!changes.isEmpty()) {
+            tx.run(APPEND_QUERY, Map.of("rows", changes)).consume();
+        }
+    }
+
+    static CompletionStage<Void> appendAsync(AsyncTransactionContext tx, List<Map<String, Object>> changes) {
+        if (changes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return tx.runAsync(APPEND_QUERY, Map.of("rows", changes))
+                .thenCompose(ResultCursor::consumeAsync)
+                .thenApply(summary -> null);
+    }
+}
@@ -0,0 +1,332 @@
+package com.remitly.neo4j.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.exception.CountryNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional precomputed full country listings, enabled by setting {@code api.country-snapshots.directory}.
+ * <p>
+ * For every country with a recorded change in {@link DatasetVersion}, the listing is serialised once and written to
+ * the directory compressed with gzip and with zstd, named after the country's version. A {@code country-snapshots}
+ * thread compares the versions with the snapshots once per second and rebuilds only the countries whose version
+ * changed: after a write that is the written countries, after a full import every country. A snapshot is only served
+ * while its version is the current one, so a request never gets a listing older than its ETag; otherwise the listing
+ * is read as usual.
+ * <p>
+ * Snapshots of an unchanged version are reused after a restart; the other files of an earlier run are deleted once
+ * every country has been synced. Replaced files are deleted after a grace period, so responses that are still being
+ * sent from them can finish. Countries whose code is not two letters are never written, so a file name cannot leave
+ * the directory or match another country's files.
+ */
+@Component
+public class CountrySnapshots {
+    private static final Logger log = LoggerFactory.getLogger(CountrySnapshots.class);
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    private static final long SYNC_INTERVAL_MILLIS = 1000;
+    private static final long DELETE_DELAY_SECONDS = 60;
+    private static final int ZSTD_LEVEL = 15;
+    private static final Pattern COUNTRY_CODE = Pattern.compile("[A-Z]{2}");
+
+    /**
+     * A snapshot file to answer a request with.
+     *
+     * @param version  The version of the listing, with an ETag specific to the encoding
+     * @param encoding The Content-Encoding of the file
+     */
+    public record Snapshot(Path path, long size, String encoding, DatasetVersion.Version version) {
+    }
+
+    private record Entry(DatasetVersion.Version version, Path gzip, long gzipSize, Path zstd, long zstdSize) {
+    }
+
+    private final SwiftCodeService swiftCodeService;
+    private final DatasetVersion datasetVersion;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final ScheduledExecutorService builder;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Map<String, DatasetVersion.Version> synced;
+    // Snapshot files found on startup, until the first complete sync has decided which of them are still current
+    private Set<Path> leftovers;
+
+    public CountrySnapshots(SwiftCodeService swiftCodeService, DatasetVersion datasetVersion,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${api.country-snapshots.directory:}") String directory) {
+        this.swiftCodeService = swiftCodeService;
+        this.datasetVersion = datasetVersion;
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath();
+        if (this.directory == null) {
+            this.builder = null;
+            return;
+        }
+
+        try {
+            Files.createDirectories(this.directory);
+            deleteFiles("*.tmp");
+            leftovers = new HashSet<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*.json.{gz,zst}")) {
+                files.forEach(leftovers::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use country snapshot directory " + this.directory, e);
+        }
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "country-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        builder.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("swift.snapshots.countries", entries, Map::size)
+                .description("Countries with a precomputed listing").register(meterRegistry);
+        log.info("Country snapshots enabled in {}", this.directory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Finds the snapshot of a country's full listing, preferring zstd over gzip.
+     *
+     * @param version        The current version of the country's listing, null when it is not known
+     * @param acceptEncoding The request's Accept-Encoding header
+     * @return The snapshot, or null when there is none for the version in an encoding the client accepts
+     */
+    public Snapshot find(String countryISO2, DatasetVersion.Version version, String acceptEncoding) {
+        if (directory == null || version == null || acceptEncoding == null) {
+            return null;
+        }
+        Entry entry = entries.get(countryISO2.toUpperCase(Locale.ROOT));
+        if (entry == null || !entry.version().equals(version)) {
+            return null;
+        }
+        if (accepts(acceptEncoding, ZSTD)) {
+            return new Snapshot(entry.zstd(), entry.zstdSize(), ZSTD, encoded(version, ZSTD));
+        }
+        if (accepts(acceptEncoding, GZIP)) {
+            return new Snapshot(entry.gzip(), entry.gzipSize(), GZIP, encoded(version, GZIP));
+        }
+        return null;
+    }
+
+    private void sync() {
+        Map<String, DatasetVersion.Version> versions = datasetVersion.countries();
+        if (versions == null || versions == synced) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        int built = 0;
+        boolean failed = false;
+        for (Map.Entry<String, DatasetVersion.Version> country : versions.entrySet()) {
+            if (!COUNTRY_CODE.matcher(country.getKey()).matches()) {
+                continue;
+            }
+            Entry entry = entries.get(country.getKey());
+            if (entry != null && entry.version().equals(country.getValue())) {
+                continue;
+            }
+            try {
+                if (build(country.getKey(), country.getValue())) {
+                    built++;
+                }
+            } catch (RuntimeException | IOException e) {
+                log.warn("Failed to build the snapshot of country {}: {}", country.getKey(), e.getMessage());
+                failed = true;
+            }
+        }
+        // Failed countries are retried on the next run
+        synced = failed ? null : versions;
+        if (!failed && leftovers != null) {
+            deleteLeftovers();
+        }
+
+        if (built > 0) {
+            log.info("Built snapshots of {} countries in {} ms", built, (System.nanoTime() - startTime) / 1_000_000);
+        }
+    }
+
+    /**
+     * @return true if the files were written, false if they were already there from an earlier run
+     */
+    private boolean build(String countryISO2, DatasetVersion.Version version) throws IOException {
+        String name = version.etag().replace("\"", "");
+        Path gzip = directory.resolve(countryISO2 + "." + name + ".json.gz");
+        Path zstd = directory.resolve(countryISO2 + "." + name + ".json.zst");
+
+        boolean written = false;
+        if (!Files.exists(gzip) || !Files.exists(zstd)) {
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(read(countryISO2));
+            } catch (CountryNotFoundException e) {
+                remove(countryISO2);
+                return false;
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+            try (OutputStream out = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(json);
+            }
+            write(gzip, compressed.toByteArray());
+            write(zstd, Zstd.compress(json, ZSTD_LEVEL));
+            written = true;
+        }
+
+        Entry entry = new Entry(version, gzip, Files.size(gzip), zstd, Files.size(zstd));
+        Entry replaced = entries.put(countryISO2, entry);
+        deleteLater(replaced, entry);
+        return written;
+    }
+
+    /**
+     * Reads the listing from Neo4j even when reads are served by the {@link SwiftDirectory}, which only notices writes
+     * of this instance.
+     */
+    private CountrySwiftCodesDTO read(String countryISO2) {
+        try (CountrySwiftCodesCursor cursor = swiftCodeService.openSwiftCodesByCountry(countryISO2)) {
+            List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> swiftCodes = new ArrayList<>();
+            cursor.forEachRemaining(swiftCodes::add);
+
+            CountrySwiftCodesDTO listing = new CountrySwiftCodesDTO();
+            listing.setCountryISO2(cursor.getCountryISO2());
+            listing.setCountryName(cursor.getCountryName());
+            listing.setSwiftCodes(swiftCodes);
+            return listing;
+        }
+    }
+
+    private void write(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void remove(String countryISO2) {
+        deleteLater(entries.remove(countryISO2), null);
+    }
+
+    /**
+     * Deletes the files of a replaced entry after the grace period, except those the current entry still uses.
+     */
+    private void deleteLater(Entry replaced, Entry current) {
+        if (replaced == null) {
+            return;
+        }
+        List<Path> files = new ArrayList<>(List.of(replaced.gzip(), replaced.zstd()));
+        if (current != null) {
+            files.removeAll(List.of(current.gzip(), current.zstd()));
+        }
+        if (!files.isEmpty()) {
+            builder.schedule(() -> delete(files), DELETE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void deleteLeftovers() {
+        for (Entry entry : entries.values()) {
+            leftovers.remove(entry.gzip());
+            leftovers.remove(entry.zstd());
+        }
+        delete(leftovers);
+        leftovers = null;
+    }
+
+    private static void delete(Iterable<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete snapshot {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void deleteFiles(String glob) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * The ETag of an encoded representation differs from the plain one, as a strong validator must.
+     */
+    private static DatasetVersion.Version encoded(DatasetVersion.Version version, String encoding) {
+        String etag = version.etag();
+        return new DatasetVersion.Version(etag.substring(0, etag.length() - 1) + "-" + encoding + "\"",
+                version.lastModified());
+    }
+
+    static boolean accepts(String acceptEncoding, String encoding) {
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
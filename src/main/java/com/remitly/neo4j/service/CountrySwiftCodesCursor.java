@@ -0,0 +1,70 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open read cursor over the SWIFT codes of one country.
+ * <p>
+ * Records are pulled from Neo4j as the caller iterates, so a country is never materialised as a list. The cursor
+ * owns its session and transaction and must be closed; it may be handed to another thread as long as it is only
+ * used by one thread at a time.
+ */
+public class CountrySwiftCodesCursor implements Iterator<CountrySwiftCodesDTO.SwiftCodeSummaryDTO>, AutoCloseable {
+    private final Session session;
+    private final Transaction transaction;
+    private final Result result;
+    private final String countryISO2;
+    private final String countryName;
+    private Record pending;
+
+    CountrySwiftCodesCursor(Session session, Transaction transaction, Result result, Record first) {
+        this.session = session;
+        this.transaction = transaction;
+        this.result = result;
+        this.countryISO2 = first.get("c").asNode().get("iso2Code").asString();
+        this.countryName = first.get("c").asNode().get("name").asString();
+        this.pending = first.get("b").isNull() ? null : first;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && result.hasNext()) {
+            pending = result.next();
+        }
+        return pending != null;
+    }
+
+    @Override
+    public CountrySwiftCodesDTO.SwiftCodeSummaryDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Record record = pending;
+        pending = null;
+        return SwiftCodeQueries.toSummary(record, countryISO2);
+    }
+
+    @Override
+    public void close() {
+        try {
+            transaction.close();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Values;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the directory used for HTTP conditional requests: a global version and one per country, taken from the
+ * {@link ChangeLog}. The global version is the latest change sequence; a country's version is the sequence of the
+ * last change to one of its banks, so writes elsewhere do not invalidate its listing. A country without a recorded
+ * change uses the global version.
+ * <p>
+ * The versions are kept in memory and refreshed on a background thread, so checking a request never queries Neo4j.
+ * The refresh runs once per second, which is also how long writes of other instances may take to be noticed, and right
+ * after a write of this instance. Writes of this instance are bracketed by {@link #suspend()} and {@link #resume()}:
+ * from the start of the write until its caches are invalidated and the refresh has completed, no version is returned
+ * and requests are answered normally, so a new version is never paired with a body read before the write. Writes of
+ * other instances are found in the change log when the sequence advances, and their codes are evicted from the
+ * {@link SwiftCodeCache} before the new version is published; each polled sequence is also passed to the
+ * {@link SwiftDirectory}, which rebuilds when it is behind.
+ * <p>
+ * Every change log starts with a random epoch that is part of the ETags, so a replaced database does not reuse the
+ * ETags of the old one.
+ */
+@Component
+public class DatasetVersion {
+    private static final Logger log = LoggerFactory.getLogger(DatasetVersion.class);
+
+    private static final long REFRESH_INTERVAL_MILLIS = 1000;
+    // Beyond this many changes since the last refresh the whole cache is cleared instead of reading them
+    private static final int MAX_EVICTED_CHANGES = 1000;
+
+    private static final String SEQUENCE_QUERY = "OPTIONAL MATCH (s:ChangeSequence {id: 'swift'}) "
+            + "RETURN s.epoch AS epoch, s.value AS sequence, s.at AS at";
+    private static final String COUNTRIES_QUERY = "MATCH (c:Country) WHERE c.changeSequence IS NOT NULL "
+            + "RETURN c.iso2Code AS iso2Code, c.changeSequence AS sequence, c.changedAt AS at";
+
+    /**
+     * @param etag         A strong entity tag, quoted
+     * @param lastModified The time of the change, in epoch milliseconds, or -1 when it is not known
+     */
+    public record Version(String etag, long lastModified) {
+    }
+
+    private record Snapshot(long writes, String epoch, long sequence, Version global, Map<String, Version> countries) {
+    }
+
+    private final Driver neo4jDriver;
+    private final SwiftCodeCache swiftCodeCache;
+    private final SwiftDirectory swiftDirectory;
+    private final ScheduledExecutorService refresher;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final AtomicInteger suspensions = new AtomicInteger();
+    private volatile Snapshot snapshot;
+
+    public DatasetVersion(Driver neo4jDriver, SwiftCodeCache swiftCodeCache, SwiftDirectory swiftDirectory) {
+        this.neo4jDriver = neo4jDriver;
+        this.swiftCodeCache = swiftCodeCache;
+        this.swiftDirectory = swiftDirectory;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dataset-version");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @return The version of the whole directory, or null when it is not known
+     */
+    public Version global() {
+        Snapshot current = current();
+        return current == null ? null : current.global();
+    }
+
+    /**
+     * @return The version of one country's listing, or null when it is not known
+     */
+    public Version country(String countryISO2) {
+        Snapshot current = current();
+        if (current == null) {
+            return null;
+        }
+        return current.countries().getOrDefault(countryISO2.toUpperCase(Locale.ROOT), current.global());
+    }
+
+    /**
+     * @return The versions of the countries with a recorded change by ISO2 code, or null when they are not known; the
+     *         same map instance is returned until one of them changes
+     */
+    public Map<String, Version> countries() {
+        Snapshot current = current();
+        return current == null ? null : current.countries();
+    }
+
+    /**
+     * Invalidates the versions after a write of this instance and refreshes them in the background.
+     */
+    public void markStale() {
+        writes.incrementAndGet();
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Stops returning versions until the matching {@link #resume()}. Call before a write of this instance; calls may
+     * overlap, from any thread, and versions are only returned again once every suspension has been resumed.
+     */
+    public void suspend() {
+        suspensions.incrementAndGet();
+        markStale();
+    }
+
+    /**
+     * Ends a suspension. Call after the write has committed or failed and the caches it affects have been
+     * invalidated; the versions are refreshed before being returned again.
+     */
+    public void resume() {
+        markStale();
+        suspensions.decrementAndGet();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (suspensions.get() > 0 || current == null || current.writes() != writes.get()) {
+            return null;
+        }
+        return current;
+    }
+
+    private void refresh() {
+        refreshScheduled.set(false);
+        // Read before the query: a write committed after this point makes the new snapshot stale
+        long observedWrites = writes.get();
+        try (Session session = neo4jDriver.session()) {
+            Record sequence = session.executeRead(tx -> tx.run(SEQUENCE_QUERY).single());
+            if (sequence.get("epoch").isNull()) {
+                snapshot = null;
+                return;
+            }
+
+            String epoch = sequence.get("epoch").asString();
+            long latest = sequence.get("sequence").asLong();
+            Snapshot previous = snapshot;
+            if (previous != null && !previous.epoch().equals(epoch)) {
+                // A replaced database restarts the sequence, which the directory cannot compare against
+                swiftDirectory.markStale();
+            } else {
+                swiftDirectory.sequenceObserved(latest);
+            }
+            if (previous != null && previous.epoch().equals(epoch) && previous.sequence() == latest) {
+                snapshot = new Snapshot(observedWrites, epoch, latest, previous.global(), previous.countries());
+                return;
+            }
+            if (previous == null || !previous.epoch().equals(epoch)) {
+                swiftCodeCache.invalidateAll();
+            } else if (latest > previous.sequence()) {
+                evictChanges(session, previous.sequence(), latest);
+            }
+
+            String tag = epoch.substring(0, 8);
+            Version global = new Version("\"" + tag + "-" + latest + "\"", millis(sequence, "at"));
+            Map<String, Version> countries = new HashMap<>();
+            session.executeRead(tx -> {
+                tx.run(COUNTRIES_QUERY).forEachRemaining(record -> {
+                    String iso2Code = record.get("iso2Code").asString();
+                    countries.put(iso2Code, new Version(
+                            "\"" + tag + "-" + iso2Code + "-" + record.get("sequence").asLong() + "\"",
+                            millis(record, "at")));
+                });
+                return null;
+            });
+            snapshot = new Snapshot(observedWrites, epoch, latest, global, Map.copyOf(countries));
+        } catch (RuntimeException e) {
+            log.debug("Failed to refresh the dataset version: {}", e.getMessage());
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Evicts the codes changed after {@code after} up to {@code latest} from the cache, which may hold them from before
+     * a write of another instance. Changes of this instance were already evicted and are evicted again harmlessly.
+     */
+    private void evictChanges(Session session, long after, long latest) {
+        if (latest - after > MAX_EVICTED_CHANGES) {
+            swiftCodeCache.invalidateAll();
+            return;
+        }
+        int count = (int) (latest - after);
+        List<Record> changes = session.executeRead(tx -> tx.run(ChangeLog.CHANGES_QUERY,
+                Values.parameters("after", after, "limit", count)).list());
+        for (Record change : changes) {
+            if (change.get("swiftCode").isNull()
+                    || ChangeEventDTO.Type.RELOADED.name().equals(change.get("type").asString())) {
+                swiftCodeCache.invalidateAll();
+                return;
+            }
+        }
+        if (changes.size() < count) {
+            // Pruned or not yet visible: the changed codes are not known
+            swiftCodeCache.invalidateAll();
+            return;
+        }
+        changes.forEach(change -> swiftCodeCache.invalidate(change.get("swiftCode").asString()));
+    }
+
+    private static long millis(Record record, String key) {
+        return record.get(key).isNull() ? -1 : record.get(key).asZonedDateTime().toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,121 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.InstitutionDTO;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import com.remitly.neo4j.exception.SwiftCodeNotFoundException;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.remitly.neo4j.service.SwiftCodeQueries.INSTITUTION_QUERY;
+
+/**
+ * Resolves any SWIFT code to its institution, the headquarters and all its branches, in one statement, so callers
+ * that route by institution do not have to combine several lookups.
+ */
+@Service
+public class InstitutionService {
+    private static final Logger log = LoggerFactory.getLogger(InstitutionService.class);
+
+    /**
+     * The fields a bank of an institution can have, in response order.
+     */
+    public static final List<String> FIELDS = List.of("swiftCode", "bankName", "address", "town", "countryISO2",
+            "countryName", "isHeadquarter");
+
+    @Autowired
+    private Driver neo4jDriver;
+
+    /**
+     * Returns the institution of a SWIFT code. Branches are ordered by SWIFT code; the country and town filters
+     * apply to them, the headquarters is always returned.
+     *
+     * @param swiftCode   Any SWIFT code of the institution, headquarters or branch
+     * @param countryISO2 Only return branches in this country, or null
+     * @param town        Only return branches in this town, matched case-insensitively, or null
+     * @param fields      The fields of every bank, from {@link #FIELDS}; null or empty for all of them
+     * @throws SwiftCodeNotFoundException if the SWIFT code is not found
+     * @throws InvalidRequestException    if a field is unknown
+     */
+    public InstitutionDTO getInstitution(String swiftCode, String countryISO2, String town,
+            Collection<String> fields) {
+        log.info("Fetching institution of SWIFT code: {} (country: {}, town: {})", swiftCode, countryISO2, town);
+
+        List<String> projection = projection(fields);
+        String upperCaseSwiftCode = swiftCode.toUpperCase(Locale.ROOT);
+        Map<String, Object> params = new HashMap<>();
+        params.put("swiftCode", upperCaseSwiftCode);
+        params.put("iso2Code", countryISO2 == null ? null : countryISO2.toUpperCase(Locale.ROOT));
+        params.put("town", town == null ? null : town.trim().toUpperCase(Locale.ROOT));
+
+        try (Session session = neo4jDriver.session()) {
+            return session.executeRead(tx -> {
+                var result = tx.run(INSTITUTION_QUERY, params);
+                if (!result.hasNext()) {
+                    throw new SwiftCodeNotFoundException("SWIFT code not found: " + upperCaseSwiftCode);
+                }
+                return toInstitution(result.next(), upperCaseSwiftCode, projection);
+            });
+        }
+    }
+
+    private static InstitutionDTO toInstitution(Record record, String swiftCode, List<String> projection) {
+        Map<String, Object> headquarters = record.get("hq").isNull() ? null
+                : toBank(record.get("hq").asNode(), record.get("hc").asNode(), projection);
+
+        List<Value> rows = new ArrayList<>(record.get("branches").asList(row -> row));
+        rows.sort(Comparator.comparing(row -> row.get("bank").asNode().get("swiftCode").asString()));
+        List<Map<String, Object>> branches = new ArrayList<>(rows.size());
+        for (Value row : rows) {
+            branches.add(toBank(row.get("bank").asNode(), row.get("country").asNode(), projection));
+        }
+
+        return new InstitutionDTO(swiftCode, headquarters, branches);
+    }
+
+    private static Map<String, Object> toBank(Node bank, Node country, List<String> projection) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String field : projection) {
+            fields.put(field, switch (field) {
+                case "swiftCode" -> bank.get("swiftCode").asString();
+                case "bankName" -> bank.get("name").asString(null);
+                case "address" -> bank.get("address").asString(null);
+                case "town" -> bank.get("town").asString(null);
+                case "countryISO2" -> country.get("iso2Code").asString();
+                case "countryName" -> country.get("name").asString(null);
+                case "isHeadquarter" -> "HEADQUARTERS".equals(bank.get("type").asString(null));
+                default -> throw new IllegalStateException("Unknown field " + field);
+            });
+        }
+        return fields;
+    }
+
+    private static List<String> projection(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return FIELDS;
+        }
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) {
+                throw new InvalidRequestException("Unknown field " + field + "; fields are "
+                        + String.join(", ", FIELDS));
+            }
+        }
+        // Response order follows FIELDS, whatever the order requested
+        return FIELDS.stream().filter(fields::contains).toList();
+    }
+}
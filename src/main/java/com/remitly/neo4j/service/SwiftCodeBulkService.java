@@ -0,0 +1,249 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.BulkItemResultDTO;
+import com.remitly.neo4j.dto.BulkItemResultDTO.Status;
+import com.remitly.neo4j.dto.BulkWriteResponseDTO;
+import com.remitly.neo4j.dto.ChangeEventDTO;
+import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.exceptions.Neo4jException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.remitly.neo4j.service.SwiftCodeQueries.*;
+
+/**
+ * Applies many creates or deletes per call. Items are written in chunks, one transaction and one UNWIND statement
+ * per chunk, and every item gets its own result, so a failing chunk does not abort the rest of the request. The
+ * codes created or deleted by a chunk are appended to the {@link ChangeLog} in the chunk's transaction.
+ */
+@Service
+public class SwiftCodeBulkService {
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeBulkService.class);
+
+    public static final int MAX_ITEMS = 10000;
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private Driver neo4jDriver;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftDirectory swiftDirectory;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * Creates SWIFT codes in chunks. Within a chunk, codes are created in one statement, then the created branches
+     * and headquarters are linked per BIC8 prefix in a second statement of the same transaction. That also links
+     * branches that already existed to a headquarters created in the request.
+     *
+     * @param items The SWIFT codes to create
+     * @return One result per item, in request order
+     * @throws InvalidRequestException if the request is empty or larger than {@link #MAX_ITEMS}
+     */
+    public BulkWriteResponseDTO createSwiftCodes(List<SwiftCodeCreateDTO> items) {
+        checkSize(items);
+        log.info("Bulk creating {} SWIFT codes", items.size());
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            SwiftCodeCreateDTO item = items.get(i);
+            if (item == null) {
+                results[i] = new BulkItemResultDTO(i, null, Status.INVALID, "Item is empty");
+                continue;
+            }
+
+            Set<ConstraintViolation<SwiftCodeCreateDTO>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = new BulkItemResultDTO(i, item.getSwiftCode(), Status.INVALID, message);
+            } else if (!seen.add(item.getSwiftCode())) {
+                results[i] = new BulkItemResultDTO(i, item.getSwiftCode(), Status.DUPLICATE,
+                        "SWIFT code appears more than once in the request");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            List<Map<String, Object>> rows = new ArrayList<>(chunk.size());
+            Map<String, String> iso2Codes = new HashMap<>();
+            Set<String> bic8s = new HashSet<>();
+            for (int index : chunk) {
+                Map<String, Object> row = createParams(items.get(index));
+                rows.add(row);
+                iso2Codes.put((String) row.get("swiftCode"), (String) row.get("iso2Code"));
+                bic8s.add((String) row.get("bic8"));
+            }
+
+            datasetVersion.suspend();
+            try {
+                Set<String> created;
+                try {
+                    created = createChunk(rows, iso2Codes, bic8s);
+                } catch (ClientException e) {
+                    if (!CONSTRAINT_VALIDATION_FAILED.equals(e.code())) {
+                        throw e;
+                    }
+                    // A concurrent create took a code between the existence check and the insert; on the retry the
+                    // check sees it, so only that item is reported as existing
+                    log.info("Retrying chunk of {} SWIFT codes after a concurrent create", chunk.size());
+                    created = createChunk(rows, iso2Codes, bic8s);
+                }
+
+                for (int index : chunk) {
+                    String swiftCode = items.get(index).getSwiftCode();
+                    results[index] = created.contains(swiftCode)
+                            ? new BulkItemResultDTO(index, swiftCode, Status.CREATED, null)
+                            : new BulkItemResultDTO(index, swiftCode, Status.ALREADY_EXISTS,
+                                    "SWIFT code already exists: " + swiftCode);
+                }
+            } catch (Neo4jException e) {
+                log.error("Error creating chunk of {} SWIFT codes", chunk.size(), e);
+                for (int index : chunk) {
+                    results[index] = new BulkItemResultDTO(index, items.get(index).getSwiftCode(), Status.FAILED,
+                            "Failed to create SWIFT code: " + e.getMessage());
+                }
+            } finally {
+                chunk.forEach(index -> swiftCodeCache.invalidate(items.get(index).getSwiftCode()));
+                swiftDirectory.markStale();
+                datasetVersion.resume();
+                changeFeedService.changesCommitted();
+            }
+        }
+
+        return new BulkWriteResponseDTO(Arrays.asList(results));
+    }
+
+    /**
+     * Deletes SWIFT codes in chunks, together with all their relationships.
+     *
+     * @param swiftCodes The SWIFT codes to delete
+     * @return One result per item, in request order
+     * @throws InvalidRequestException if the request is empty or larger than {@link #MAX_ITEMS}
+     */
+    public BulkWriteResponseDTO deleteSwiftCodes(List<String> swiftCodes) {
+        checkSize(swiftCodes);
+        log.info("Bulk deleting {} SWIFT codes", swiftCodes.size());
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[swiftCodes.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < swiftCodes.size(); i++) {
+            String swiftCode = swiftCodes.get(i);
+            if (swiftCode == null || swiftCode.isBlank()) {
+                results[i] = new BulkItemResultDTO(i, swiftCode, Status.INVALID, "SWIFT code is required");
+            } else if (!seen.add(swiftCode)) {
+                results[i] = new BulkItemResultDTO(i, swiftCode, Status.DUPLICATE,
+                        "SWIFT code appears more than once in the request");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            List<String> codes = chunk.stream().map(swiftCodes::get).collect(Collectors.toList());
+
+            datasetVersion.suspend();
+            try (Session session = neo4jDriver.session()) {
+                Set<String> deleted = session.executeWrite(tx -> {
+                    ChangeLog.lockCountries(tx, codes.stream()
+                            .map(swiftCode -> ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode, null))
+                            .collect(Collectors.toList()));
+                    Set<String> result = new HashSet<>();
+                    List<Map<String, Object>> changes = new ArrayList<>();
+                    tx.run(BULK_DELETE_QUERY, Map.of("swiftCodes", codes)).forEachRemaining(record -> {
+                        String swiftCode = record.get("swiftCode").asString();
+                        result.add(swiftCode);
+                        changes.add(ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode,
+                                record.get("iso2Code", (String) null)));
+                    });
+                    ChangeLog.append(tx, changes);
+                    return result;
+                });
+
+                for (int index : chunk) {
+                    String swiftCode = swiftCodes.get(index);
+                    results[index] = deleted.contains(swiftCode)
+                            ? new BulkItemResultDTO(index, swiftCode, Status.DELETED, null)
+                            : new BulkItemResultDTO(index, swiftCode, Status.NOT_FOUND,
+                                    "SWIFT code not found: " + swiftCode);
+                }
+            } catch (Neo4jException e) {
+                log.error("Error deleting chunk of {} SWIFT codes", chunk.size(), e);
+                for (int index : chunk) {
+                    results[index] = new BulkItemResultDTO(index, swiftCodes.get(index), Status.FAILED,
+                            "Failed to delete SWIFT code: " + e.getMessage());
+                }
+            } finally {
+                codes.forEach(swiftCodeCache::invalidate);
+                swiftDirectory.markStale();
+                datasetVersion.resume();
+                changeFeedService.changesCommitted();
+            }
+        }
+
+        return new BulkWriteResponseDTO(Arrays.asList(results));
+    }
+
+    private Set<String> createChunk(List<Map<String, Object>> rows, Map<String, String> iso2Codes,
+            Set<String> bic8s) {
+        try (Session session = neo4jDriver.session()) {
+            return session.executeWrite(tx -> {
+                ChangeLog.lockCountries(tx, rows);
+                Set<String> codes = new HashSet<>();
+                List<Map<String, Object>> changes = new ArrayList<>();
+                tx.run(BULK_CREATE_QUERY, Map.of("rows", rows)).forEachRemaining(record -> {
+                    String swiftCode = record.get("swiftCode").asString();
+                    codes.add(swiftCode);
+                    changes.add(ChangeLog.change(ChangeEventDTO.Type.CREATED, swiftCode, iso2Codes.get(swiftCode)));
+                });
+                tx.run(LINK_BRANCHES_BY_BIC8_QUERY, Map.of("bic8s", new ArrayList<>(bic8s)));
+                ChangeLog.append(tx, changes);
+                return codes;
+            });
+        }
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("At least one item is required");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new InvalidRequestException("At most " + MAX_ITEMS + " items can be written at once");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.remitly.neo4j.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import com.remitly.neo4j.swift.SwiftCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of fully built {@link SwiftCodeDTO} objects, keyed by the packed {@link SwiftCode}.
+ * Input that is not a valid SWIFT code bypasses the cache.
+ * <p>
+ * Callers that load outside of {@link #get(String, Function)} take a {@link #generation()} before reading and store
+ * with {@link #put(String, SwiftCodeDTO, long)}, which drops the entry again if anything was invalidated meanwhile, so
+ * a DTO read before a write never survives the write's invalidation.
+ * <p>
+ * Hit, miss and eviction counters are published as the {@code cache.*} meters tagged {@code cache=swiftCodeDetails}.
+ */
+@Component
+public class SwiftCodeCache {
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeCache.class);
+    private static final String CACHE_NAME = "swiftCodeDetails";
+    private static final long MAX_SIZE = Long.parseLong(System.getenv().getOrDefault("SWIFT_CODE_CACHE_MAX_SIZE", "10000"));
+    private static final long TTL_SECONDS = Long.parseLong(System.getenv().getOrDefault("SWIFT_CODE_CACHE_TTL_SECONDS", "600"));
+
+    private final Cache<Long, SwiftCodeDTO> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SwiftCodeCache(MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .expireAfterWrite(Duration.ofSeconds(TTL_SECONDS))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("SWIFT code cache enabled (max size: {}, TTL: {} s)", MAX_SIZE, TTL_SECONDS);
+    }
+
+    /**
+     * Returns the cached DTO for a SWIFT code, loading it on a miss. Exceptions thrown by the loader are propagated
+     * and nothing is cached.
+     *
+     * @param swiftCode The SWIFT code to look up
+     * @param loader    Builds the DTO from the database
+     * @return The cached or freshly loaded DTO
+     */
+    public SwiftCodeDTO get(String swiftCode, Function<String, SwiftCodeDTO> loader) {
+        long key = SwiftCode.encode(swiftCode);
+        if (key == SwiftCode.INVALID) {
+            return loader.apply(swiftCode);
+        }
+        return cache.get(key, ignored -> loader.apply(swiftCode));
+    }
+
+    /**
+     * Returns the cached DTO for a SWIFT code without loading it, for callers that load asynchronously.
+     *
+     * @param swiftCode The SWIFT code to look up
+     * @return The cached DTO or null
+     */
+    public SwiftCodeDTO getIfPresent(String swiftCode) {
+        long key = SwiftCode.encode(swiftCode);
+        return key == SwiftCode.INVALID ? null : cache.getIfPresent(key);
+    }
+
+    /**
+     * @return The invalidation count, to pass to {@link #put(String, SwiftCodeDTO, long)}; take it before reading
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a DTO loaded by the caller, unless an invalidation happened since {@code generation} was taken. The check
+     * follows the put, so an invalidation racing with it evicts the entry either way.
+     *
+     * @param generation The {@link #generation()} taken before the DTO was read
+     */
+    public void put(String swiftCode, SwiftCodeDTO dto, long generation) {
+        long key = SwiftCode.encode(swiftCode);
+        if (key == SwiftCode.INVALID || this.generation.get() != generation) {
+            return;
+        }
+        cache.put(key, dto);
+        if (this.generation.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Evicts a SWIFT code together with its headquarters entry, whose branch list contains the code when it is a
+     * branch.
+     *
+     * @param swiftCode The SWIFT code that was created or deleted
+     */
+    public void invalidate(String swiftCode) {
+        long key = SwiftCode.encode(swiftCode);
+        if (key != SwiftCode.INVALID) {
+            generation.incrementAndGet();
+            cache.invalidate(key);
+            cache.invalidate(SwiftCode.headquarters(key));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,310 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import com.remitly.neo4j.exception.CountryNotFoundException;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Node;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cypher statements and record mapping shared by the blocking {@link SwiftCodeService} and the non-blocking
+ * {@link AsyncSwiftCodeService}, so both execution paths return identical responses.
+ */
+final class SwiftCodeQueries {
+    static final String CONSTRAINT_VALIDATION_FAILED = "Neo.ClientError.Schema.ConstraintValidationFailed";
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final char CURSOR_SEPARATOR = '\n';
+    private static final char CURSOR_NAME = '=';
+    private static final char CURSOR_NO_NAME = '-';
+
+    static final String DETAILS_QUERY = "MATCH (b:Bank {swiftCode: $swiftCode})-[:LOCATED_IN]->(c:Country) "
+            + "RETURN b, c, b.type = 'HEADQUARTERS' as isHeadquarter, "
+            + "[(bc:Country)<-[:LOCATED_IN]-(branch:Bank)-[:BRANCH_OF]->(b) "
+            + "| {branch: branch, countryISO2: bc.iso2Code}] as branches";
+
+    static final String BATCH_DETAILS_QUERY = "UNWIND $swiftCodes AS swiftCode "
+            + "MATCH (b:Bank {swiftCode: swiftCode})-[:LOCATED_IN]->(c:Country) "
+            + "RETURN b, c, b.type = 'HEADQUARTERS' as isHeadquarter, "
+            + "CASE WHEN $includeBranches "
+            + "THEN [(bc:Country)<-[:LOCATED_IN]-(branch:Bank)-[:BRANCH_OF]->(b) "
+            + "| {branch: branch, countryISO2: bc.iso2Code}] END as branches";
+
+    // Every row carries the country; a country without (further) banks yields a single row with a null bank
+    static final String COUNTRY_QUERY = "MATCH (c:Country {iso2Code: $iso2Code}) "
+            + "OPTIONAL MATCH (b:Bank)-[:LOCATED_IN]->(c) "
+            + "RETURN c, b, b.type = 'HEADQUARTERS' as isHeadquarter " + "ORDER BY b.name";
+
+    // Banks without a name come last, as null sorts last; $afterSwiftCode is null on the first page and $afterName is
+    // null when the previous page ended on a bank without a name
+    static final String COUNTRY_PAGE_QUERY = "MATCH (c:Country {iso2Code: $iso2Code}) "
+            + "OPTIONAL MATCH (b:Bank)-[:LOCATED_IN]->(c) "
+            + "WHERE $afterSwiftCode IS NULL "
+            + "OR ($afterName IS NULL AND b.name IS NULL AND b.swiftCode > $afterSwiftCode) "
+            + "OR ($afterName IS NOT NULL AND (b.name IS NULL OR b.name > $afterName "
+            + "OR (b.name = $afterName AND b.swiftCode > $afterSwiftCode))) "
+            + "RETURN c, b, b.type = 'HEADQUARTERS' as isHeadquarter " + "ORDER BY b.name, b.swiftCode "
+            + "LIMIT $limit";
+
+    // The headquarters of a code is the code itself or its BRANCH_OF target; the branches of an institution without a
+    // headquarters in the directory are found by their BIC8 prefix. Filters apply to the branches only.
+    static final String INSTITUTION_QUERY = "MATCH (b:Bank {swiftCode: $swiftCode}) "
+            + "OPTIONAL MATCH (b)-[:BRANCH_OF]->(parent:Bank) "
+            + "WITH b, CASE WHEN b.type = 'HEADQUARTERS' THEN b ELSE parent END as hq "
+            + "OPTIONAL MATCH (hq)-[:LOCATED_IN]->(hc:Country) "
+            + "RETURN hq, hc, CASE WHEN hq IS NULL "
+            + "THEN [(sc:Country)<-[:LOCATED_IN]-(s:Bank {bic8: b.bic8}) "
+            + "WHERE ($iso2Code IS NULL OR sc.iso2Code = $iso2Code) AND ($town IS NULL OR toUpper(s.town) = $town) "
+            + "| {bank: s, country: sc}] "
+            + "ELSE [(sc:Country)<-[:LOCATED_IN]-(s:Bank)-[:BRANCH_OF]->(hq) "
+            + "WHERE ($iso2Code IS NULL OR sc.iso2Code = $iso2Code) AND ($town IS NULL OR toUpper(s.town) = $town) "
+            + "| {bank: s, country: sc}] END as branches";
+
+    // Ranked by the full-text score of bank_name_fulltext, ties broken by code so that pages are stable
+    static final String SEARCH_NAME_QUERY = "CALL db.index.fulltext.queryNodes('bank_name_fulltext', $query) "
+            + "YIELD node AS b, score "
+            + "MATCH (b)-[:LOCATED_IN]->(c:Country) "
+            + "WHERE $iso2Code IS NULL OR c.iso2Code = $iso2Code "
+            + "RETURN b, c.iso2Code as iso2Code, b.type = 'HEADQUARTERS' as isHeadquarter "
+            + "ORDER BY score DESC, b.swiftCode SKIP $offset LIMIT $limit";
+
+    // STARTS WITH is answered from the range index of the Bank.swiftCode constraint, in code order
+    static final String SEARCH_PREFIX_QUERY = "MATCH (b:Bank)-[:LOCATED_IN]->(c:Country) "
+            + "WHERE b.swiftCode STARTS WITH $prefix AND ($iso2Code IS NULL OR c.iso2Code = $iso2Code) "
+            + "RETURN b, c.iso2Code as iso2Code, b.type = 'HEADQUARTERS' as isHeadquarter "
+            + "ORDER BY b.swiftCode SKIP $offset LIMIT $limit";
+
+    // Only proceeds when the code is absent; a concurrent create is rejected by the unique constraint
+    static final String CREATE_QUERY = "OPTIONAL MATCH (existing:Bank {swiftCode: $swiftCode}) "
+            + "WITH existing WHERE existing IS NULL "
+            + "MERGE (c:Country {iso2Code: $iso2Code}) "
+            + "ON CREATE SET c.name = $countryName, c.timeZone = $timeZone "
+            + "ON MATCH SET c.name = $countryName "
+            + "CREATE (b:Bank {swiftCode: $swiftCode}) " + "SET b.name = $name, " + "b.address = $address, "
+            + "b.type = $type, " + "b.codeType = $codeType, " + "b.bic8 = $bic8 "
+            + "MERGE (b)-[:LOCATED_IN]->(c) "
+            + "WITH b "
+            + "OPTIONAL MATCH (hq:Bank {swiftCode: $hqSwiftCode}) "
+            + "WHERE b.type = 'BRANCH' AND hq <> b "
+            + "FOREACH (h IN CASE WHEN hq IS NULL THEN [] ELSE [hq] END | MERGE (b)-[:BRANCH_OF]->(h)) "
+            + "RETURN count(b) as created";
+
+    // Returns the codes that were created; rows whose code already exists are skipped
+    static final String BULK_CREATE_QUERY = "UNWIND $rows AS row "
+            + "OPTIONAL MATCH (existing:Bank {swiftCode: row.swiftCode}) "
+            + "WITH row, existing WHERE existing IS NULL "
+            + "MERGE (c:Country {iso2Code: row.iso2Code}) "
+            + "ON CREATE SET c.name = row.countryName, c.timeZone = row.timeZone "
+            + "ON MATCH SET c.name = row.countryName "
+            + "CREATE (b:Bank {swiftCode: row.swiftCode}) "
+            + "SET b.name = row.name, b.address = row.address, b.type = row.type, "
+            + "b.codeType = row.codeType, b.bic8 = row.bic8 "
+            + "MERGE (b)-[:LOCATED_IN]->(c) "
+            + "RETURN b.swiftCode as swiftCode";
+
+    // Links, per BIC8 prefix, all branches to the headquarters through the bank_bic8 index
+    static final String LINK_BRANCHES_BY_BIC8_QUERY = "UNWIND $bic8s AS bic8 "
+            + "MATCH (hq:Bank {swiftCode: bic8 + 'XXX'}) "
+            + "MATCH (branch:Bank {bic8: bic8}) "
+            + "WHERE branch.type = 'BRANCH' AND branch <> hq "
+            + "MERGE (branch)-[:BRANCH_OF]->(hq)";
+
+    // The country is returned for the change log, which records it before the bank is gone
+    static final String BULK_DELETE_QUERY = "UNWIND $swiftCodes AS swiftCode "
+            + "MATCH (b:Bank {swiftCode: swiftCode}) "
+            + "OPTIONAL MATCH (b)-[:LOCATED_IN]->(c:Country) "
+            + "WITH b, swiftCode, c.iso2Code as iso2Code " + "DETACH DELETE b "
+            + "RETURN swiftCode, iso2Code";
+
+    static final String DELETE_QUERY = "MATCH (b:Bank {swiftCode: $swiftCode}) "
+            + "OPTIONAL MATCH (b)-[:LOCATED_IN]->(c:Country) "
+            + "WITH b, c.iso2Code as iso2Code " + "DETACH DELETE b "
+            + "RETURN count(*) as deleted, collect(iso2Code)[0] as iso2Code";
+
+    private SwiftCodeQueries() {
+    }
+
+    static Map<String, Object> createParams(SwiftCodeCreateDTO createDTO) {
+        String swiftCode = createDTO.getSwiftCode();
+        String bic8 = swiftCode.substring(0, 8);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("swiftCode", swiftCode);
+        params.put("iso2Code", createDTO.getCountryISO2().toUpperCase());
+        params.put("countryName", createDTO.getCountryName().toUpperCase());
+        params.put("timeZone", "UTC"); // Default timezone if not provided
+        params.put("name", createDTO.getBankName());
+        params.put("address", createDTO.getAddress());
+        params.put("type", createDTO.isHeadquarter() ? "HEADQUARTERS" : "BRANCH");
+        params.put("codeType", swiftCode.length() == 11 ? "BIC11" : "BIC8");
+        params.put("bic8", bic8);
+        params.put("hqSwiftCode", bic8 + "XXX");
+        return params;
+    }
+
+    /**
+     * Builds the parameters of {@link #COUNTRY_PAGE_QUERY}.
+     *
+     * @throws InvalidRequestException if the cursor is malformed or the limit is out of range
+     */
+    static Map<String, Object> pageParams(String countryISO2, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String[] after = cursor == null ? new String[] { null, null } : decodeCursor(cursor);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("iso2Code", countryISO2);
+        params.put("afterName", after[0]);
+        params.put("afterSwiftCode", after[1]);
+        params.put("limit", limit + 1); // one extra row tells whether there is a next page
+        return params;
+    }
+
+    static SwiftCodeDTO toDetails(Record record, String swiftCode) {
+        return toDetails(record, swiftCode, true);
+    }
+
+    /**
+     * Maps a row of {@link #DETAILS_QUERY} or {@link #BATCH_DETAILS_QUERY}.
+     *
+     * @param includeBranches Whether the branch list of a headquarters is mapped; when false it is left null
+     */
+    static SwiftCodeDTO toDetails(Record record, String swiftCode, boolean includeBranches) {
+        Node bankNode = record.get("b").asNode();
+        Node countryNode = record.get("c").asNode();
+        boolean isHeadquarter = record.get("isHeadquarter").asBoolean();
+
+        SwiftCodeDTO dto = new SwiftCodeDTO();
+        dto.setAddress(bankNode.get("address").asString(null));
+        dto.setBankName(bankNode.get("name").asString(null));
+        dto.setCountryISO2(countryNode.get("iso2Code").asString());
+        dto.setCountryName(countryNode.get("name").asString(null));
+        dto.setHeadquarter(isHeadquarter);
+        dto.setSwiftCode(swiftCode);
+
+        if (isHeadquarter && includeBranches) {
+            dto.setBranches(toBranches(record.get("branches")));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Maps the branch list collected by the details query.
+     *
+     * @param branches List of {branch, countryISO2} maps
+     * @return List of branch DTOs
+     */
+    static List<SwiftCodeDTO.BranchDTO> toBranches(Value branches) {
+        List<SwiftCodeDTO.BranchDTO> result = new ArrayList<>(branches.size());
+
+        for (Value entry : branches.values()) {
+            Node branchNode = entry.get("branch").asNode();
+
+            SwiftCodeDTO.BranchDTO branchDTO = new SwiftCodeDTO.BranchDTO();
+            branchDTO.setAddress(branchNode.get("address").asString(null));
+            branchDTO.setBankName(branchNode.get("name").asString(null));
+            branchDTO.setCountryISO2(entry.get("countryISO2").asString());
+            branchDTO.setHeadquarter(false); // Always false for branches
+            branchDTO.setSwiftCode(branchNode.get("swiftCode").asString());
+
+            result.add(branchDTO);
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the country DTO from rows of {@link #COUNTRY_QUERY} or {@link #COUNTRY_PAGE_QUERY}, reading at most
+     * {@code limit} banks. When the records are not exhausted afterwards, the next page cursor is set.
+     */
+    static CountrySwiftCodesDTO toCountryDTO(Iterator<Record> records, String countryISO2, int limit) {
+        if (!records.hasNext()) {
+            throw new CountryNotFoundException("Country not found with ISO2 code: " + countryISO2);
+        }
+
+        CountrySwiftCodesDTO dto = null;
+        List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> swiftCodes = new ArrayList<>();
+
+        while (swiftCodes.size() < limit && records.hasNext()) {
+            Record record = records.next();
+
+            if (dto == null) {
+                Node countryNode = record.get("c").asNode();
+                dto = new CountrySwiftCodesDTO();
+                dto.setCountryISO2(countryNode.get("iso2Code").asString());
+                dto.setCountryName(countryNode.get("name").asString(null));
+            }
+
+            if (!record.get("b").isNull()) {
+                swiftCodes.add(toSummary(record, countryISO2));
+            }
+        }
+
+        dto.setSwiftCodes(swiftCodes);
+
+        if (records.hasNext()) {
+            CountrySwiftCodesDTO.SwiftCodeSummaryDTO last = swiftCodes.get(swiftCodes.size() - 1);
+            dto.setNextCursor(encodeCursor(last.getBankName(), last.getSwiftCode()));
+        }
+
+        return dto;
+    }
+
+    static CountrySwiftCodesDTO.SwiftCodeSummaryDTO toSummary(Record record, String countryISO2) {
+        Node bankNode = record.get("b").asNode();
+        boolean isHeadquarter = record.get("isHeadquarter").asBoolean();
+
+        CountrySwiftCodesDTO.SwiftCodeSummaryDTO swiftCode = new CountrySwiftCodesDTO.SwiftCodeSummaryDTO();
+        swiftCode.setAddress(bankNode.get("address").asString(null));
+        swiftCode.setBankName(bankNode.get("name").asString(null));
+        swiftCode.setCountryISO2(countryISO2);
+        swiftCode.setHeadquarter(isHeadquarter);
+        swiftCode.setSwiftCode(bankNode.get("swiftCode").asString());
+
+        return swiftCode;
+    }
+
+    /**
+     * Encodes a keyset position. The name is prefixed with {@link #CURSOR_NAME} or, for a bank without a name,
+     * replaced by {@link #CURSOR_NO_NAME}, so no name can be mistaken for a missing one.
+     */
+    static String encodeCursor(String name, String swiftCode) {
+        String position = (name == null ? String.valueOf(CURSOR_NO_NAME) : CURSOR_NAME + name) + CURSOR_SEPARATOR
+                + swiftCode;
+        byte[] bytes = position.getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator < 1 || separator == decoded.length() - 1) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            String swiftCode = decoded.substring(separator + 1);
+            if (decoded.charAt(0) == CURSOR_NAME) {
+                return new String[] { decoded.substring(1, separator), swiftCode };
+            }
+            if (decoded.charAt(0) == CURSOR_NO_NAME && separator == 1) {
+                return new String[] { null, swiftCode };
+            }
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SearchResultsDTO;
+import com.remitly.neo4j.exception.InvalidRequestException;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.remitly.neo4j.service.SwiftCodeQueries.*;
+
+/**
+ * Searches banks by name and by SWIFT code prefix, for type-ahead lookups.
+ * <p>
+ * Name search goes to the {@code bank_name_fulltext} index. The input is split into words, which must all match,
+ * case-insensitively: words of {@value #FUZZY_MIN_LENGTH} or more characters also match with one typo, and the last
+ * word also matches as a prefix, since it may still be being typed. Prefix search uses the range index of
+ * Bank.swiftCode, or the sorted codes of the {@link SwiftDirectory} when reads are served from memory.
+ */
+@Service
+public class SwiftCodeSearchService {
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeSearchService.class);
+
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_OFFSET = 1000;
+    public static final int MAX_WORDS = 10;
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    // Splits on everything the Lucene query syntax treats specially; dots and apostrophes stay, as in the analyzer
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}.']+");
+    private static final Pattern SWIFT_CODE_PREFIX = Pattern.compile("[A-Z0-9]{1,11}");
+
+    @Autowired
+    private Driver neo4jDriver;
+
+    @Autowired
+    private SwiftDirectory swiftDirectory;
+
+    /**
+     * Validates a search without running it, so that callers can reject a malformed request before answering it from
+     * a cached version.
+     *
+     * @param name      The name searched for, or null
+     * @param swiftCode The SWIFT code prefix searched for, or null
+     * @throws InvalidRequestException if not exactly one of name and prefix is given, either is malformed, or the page
+     *                                 is out of range
+     */
+    public void checkSearch(String name, String swiftCode, int offset, int limit) {
+        if ((name == null) == (swiftCode == null)) {
+            throw new InvalidRequestException("Exactly one of name and swiftCode must be given");
+        }
+        checkPage(offset, limit);
+        if (name != null) {
+            fullTextQuery(name);
+        } else {
+            swiftCodePrefix(swiftCode);
+        }
+    }
+
+    /**
+     * Searches banks by name, best match first.
+     *
+     * @param name        The words to search for
+     * @param countryISO2 The country to restrict the results to, or null
+     * @throws InvalidRequestException if the name has no words or too many, or the page is out of range
+     */
+    public SearchResultsDTO searchByName(String name, String countryISO2, int offset, int limit) {
+        log.info("Searching banks by name: {} (country: {}, offset: {}, limit: {})", name, countryISO2, offset, limit);
+        checkPage(offset, limit);
+
+        Map<String, Object> params = pageParams(countryISO2, offset, limit);
+        params.put("query", fullTextQuery(name));
+        return search(SEARCH_NAME_QUERY, params, offset, limit);
+    }
+
+    /**
+     * Searches banks whose SWIFT code starts with a prefix, in code order.
+     *
+     * @param prefix      One to eleven letters and digits, in any case
+     * @param countryISO2 The country to restrict the results to, or null
+     * @throws InvalidRequestException if the prefix is malformed or the page is out of range
+     */
+    public SearchResultsDTO searchBySwiftCodePrefix(String prefix, String countryISO2, int offset, int limit) {
+        log.info("Searching banks by SWIFT code prefix: {} (country: {}, offset: {}, limit: {})", prefix, countryISO2,
+                offset, limit);
+        checkPage(offset, limit);
+
+        String upperCasePrefix = swiftCodePrefix(prefix);
+
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results = directory.prefix(upperCasePrefix,
+                    countryISO2 == null ? null : countryISO2.toUpperCase(Locale.ROOT), offset, limit + 1);
+            return page(results, offset, limit);
+        }
+
+        Map<String, Object> params = pageParams(countryISO2, offset, limit);
+        params.put("prefix", upperCasePrefix);
+        return search(SEARCH_PREFIX_QUERY, params, offset, limit);
+    }
+
+    private SearchResultsDTO search(String query, Map<String, Object> params, int offset, int limit) {
+        try (Session session = neo4jDriver.session()) {
+            List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results = session.executeRead(tx -> {
+                List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> rows = new ArrayList<>();
+                tx.run(query, params).forEachRemaining(record ->
+                        rows.add(toSummary(record, record.get("iso2Code").asString())));
+                return rows;
+            });
+            return page(results, offset, limit);
+        }
+    }
+
+    /**
+     * Builds the Lucene query for a name: every word is required, longer words also match with one edit, and the
+     * last word also matches as a prefix. Words are lower-cased because fuzzy and prefix terms are not analysed.
+     */
+    private static String fullTextQuery(String name) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(name.toLowerCase(Locale.ROOT))) {
+            word = word.replaceAll("^[.']+|[.']+$", "");
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            throw new InvalidRequestException("Name must contain at least one letter or digit");
+        }
+        if (words.size() > MAX_WORDS) {
+            throw new InvalidRequestException("Name must not have more than " + MAX_WORDS + " words");
+        }
+
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            query.append(i == 0 ? "+(" : " +(").append('"').append(word).append('"');
+            if (word.length() >= FUZZY_MIN_LENGTH && word.indexOf('.') < 0 && word.indexOf('\'') < 0) {
+                query.append(" OR ").append(word).append("~1");
+            }
+            if (i == words.size() - 1) {
+                query.append(" OR ").append(word).append('*');
+            }
+            query.append(')');
+        }
+        return query.toString();
+    }
+
+    private static String swiftCodePrefix(String prefix) {
+        String upperCasePrefix = prefix.trim().toUpperCase(Locale.ROOT);
+        if (!SWIFT_CODE_PREFIX.matcher(upperCasePrefix).matches()) {
+            throw new InvalidRequestException("SWIFT code prefix must be 1 to 11 letters or digits");
+        }
+        return upperCasePrefix;
+    }
+
+    private static Map<String, Object> pageParams(String countryISO2, int offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("iso2Code", countryISO2 == null ? null : countryISO2.toUpperCase(Locale.ROOT));
+        params.put("offset", offset);
+        // One more than requested tells whether another page follows
+        params.put("limit", limit + 1);
+        return params;
+    }
+
+    private static SearchResultsDTO page(List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> results, int offset,
+            int limit) {
+        if (results.size() > limit) {
+            return new SearchResultsDTO(new ArrayList<>(results.subList(0, limit)), offset + limit);
+        }
+        return new SearchResultsDTO(results, null);
+    }
+
+    private static void checkPage(int offset, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new InvalidRequestException("Offset must be between 0 and " + MAX_OFFSET);
+        }
+    }
+}
@@ -1,24 +1,29 @@
 package com.remitly.neo4j.service;
 
+import com.remitly.neo4j.dto.BatchLookupResponseDTO;
+import com.remitly.neo4j.dto.ChangeEventDTO;
 import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
 import com.remitly.neo4j.dto.SwiftCodeCreateDTO;
 import com.remitly.neo4j.dto.SwiftCodeDTO;
 import com.remitly.neo4j.exception.CountryNotFoundException;
+import com.remitly.neo4j.exception.InvalidRequestException;
 import com.remitly.neo4j.exception.SwiftCodeAlreadyExistsException;
 import com.remitly.neo4j.exception.SwiftCodeNotFoundException;
 import org.neo4j.driver.*;
-import org.neo4j.driver.Record;
-import org.neo4j.driver.types.Node;
+import org.neo4j.driver.exceptions.ClientException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
+import static com.remitly.neo4j.service.SwiftCodeQueries.*;
+
 @Service
 public class SwiftCodeService {
     private static final Logger log = LoggerFactory.getLogger(SwiftCodeService.class);
@@ -26,8 +31,21 @@ public class SwiftCodeService {
     @Autowired
     private Driver neo4jDriver;
 
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftDirectory swiftDirectory;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
     /**
-     * Retrieves details for a specific SWIFT code.
+     * Retrieves details for a specific SWIFT code, served from {@link SwiftDirectory} or {@link SwiftCodeCache} when
+     * possible.
      *
      * @param swiftCode The SWIFT code to look up
      * @return DTO with bank details and branch information if applicable
@@ -36,84 +54,95 @@ public class SwiftCodeService {
     public SwiftCodeDTO getSwiftCodeDetails(String swiftCode) {
         log.info("Fetching details for SWIFT code: {}", swiftCode);
 
-        try (Session session = neo4jDriver.session()) {
-            boolean exists = session.executeRead(tx -> {
-                var result = tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) RETURN count(b) as count",
-                        Map.of("swiftCode", swiftCode));
-                return result.single().get("count").asLong() > 0;
-            });
-
-            if (!exists) {
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            SwiftCodeDTO dto = directory.details(swiftCode, true);
+            if (dto == null) {
                 throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
             }
+            return dto;
+        }
+
+        return swiftCodeCache.get(swiftCode, this::loadSwiftCodeDetails);
+    }
 
+    /**
+     * Loads a SWIFT code with its country and, for headquarters, its branches in a single statement. An empty
+     * result means the code does not exist.
+     */
+    private SwiftCodeDTO loadSwiftCodeDetails(String swiftCode) {
+        try (Session session = neo4jDriver.session()) {
             return session.executeRead(tx -> {
-                var result = tx.run(
-                        "MATCH (b:Bank {swiftCode: $swiftCode})-[:LOCATED_IN]->(c:Country) "
-                                + "RETURN b, c, b.type = 'HEADQUARTERS' as isHeadquarter",
-                        Map.of("swiftCode", swiftCode));
-
-                if (result.hasNext()) {
-                    Record record = result.next();
-                    Node bankNode = record.get("b").asNode();
-                    Node countryNode = record.get("c").asNode();
-                    boolean isHeadquarter = record.get("isHeadquarter").asBoolean();
-
-                    SwiftCodeDTO dto = new SwiftCodeDTO();
-                    dto.setAddress(bankNode.get("address").asString());
-                    dto.setBankName(bankNode.get("name").asString());
-                    dto.setCountryISO2(countryNode.get("iso2Code").asString());
-                    dto.setCountryName(countryNode.get("name").asString());
-                    dto.setHeadquarter(isHeadquarter);
-                    dto.setSwiftCode(swiftCode);
-
-                    if (isHeadquarter) {
-                        dto.setBranches(getBranchesForHeadquarter(tx, swiftCode));
-                    }
+                var result = tx.run(DETAILS_QUERY, Map.of("swiftCode", swiftCode));
 
-                    return dto;
-                } else {
+                if (!result.hasNext()) {
                     throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
                 }
+
+                return toDetails(result.next(), swiftCode);
             });
         }
     }
 
     /**
-     * Gets all branches for a headquarters SWIFT code.
-     * 
-     * @param tx                   The transaction context
-     * @param headquarterSwiftCode The headquarters SWIFT code
-     * @return List of branch DTOs
+     * Resolves many SWIFT codes with a single statement. With branches included, codes held by
+     * {@link SwiftCodeCache} are answered from it and only the rest is queried; the loaded entries are cached.
+     *
+     * @param swiftCodes      The SWIFT codes to look up; duplicates are resolved once
+     * @param includeBranches Whether headquarters entries carry their branch list
+     * @return Found entries in request order and the codes that do not exist
      */
-    private List<SwiftCodeDTO.BranchDTO> getBranchesForHeadquarter(TransactionContext tx, String headquarterSwiftCode) {
-        var result = tx.run(
-                "MATCH (branch:Bank)-[:BRANCH_OF]->(hq:Bank {swiftCode: $swiftCode}) "
-                        + "MATCH (branch)-[:LOCATED_IN]->(c:Country) " + "RETURN branch, c",
-                Map.of("swiftCode", headquarterSwiftCode));
-
-        if (!result.hasNext()) {
-            return Collections.emptyList();
-        }
+    public BatchLookupResponseDTO batchLookup(List<String> swiftCodes, boolean includeBranches) {
+        log.info("Batch lookup of {} SWIFT codes (branches: {})", swiftCodes.size(), includeBranches);
 
-        List<SwiftCodeDTO.BranchDTO> branches = new ArrayList<>();
+        Map<String, SwiftCodeDTO> resolved = new LinkedHashMap<>();
+        List<String> toQuery = new ArrayList<>();
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
 
-        while (result.hasNext()) {
-            Record record = result.next();
-            Node branchNode = record.get("branch").asNode();
-            Node countryNode = record.get("c").asNode();
-
-            SwiftCodeDTO.BranchDTO branchDTO = new SwiftCodeDTO.BranchDTO();
-            branchDTO.setAddress(branchNode.get("address").asString());
-            branchDTO.setBankName(branchNode.get("name").asString());
-            branchDTO.setCountryISO2(countryNode.get("iso2Code").asString());
-            branchDTO.setHeadquarter(false); // Always false for branches
-            branchDTO.setSwiftCode(branchNode.get("swiftCode").asString());
+        for (String swiftCode : new LinkedHashSet<>(swiftCodes)) {
+            if (directory != null) {
+                resolved.put(swiftCode, directory.details(swiftCode, includeBranches));
+                continue;
+            }
+            SwiftCodeDTO cached = includeBranches ? swiftCodeCache.getIfPresent(swiftCode) : null;
+            resolved.put(swiftCode, cached);
+            if (cached == null) {
+                toQuery.add(swiftCode);
+            }
+        }
 
-            branches.add(branchDTO);
+        if (!toQuery.isEmpty()) {
+            long generation = swiftCodeCache.generation();
+            try (Session session = neo4jDriver.session()) {
+                session.executeRead(tx -> {
+                    var result = tx.run(BATCH_DETAILS_QUERY,
+                            Map.of("swiftCodes", toQuery, "includeBranches", includeBranches));
+                    while (result.hasNext()) {
+                        var record = result.next();
+                        String swiftCode = record.get("b").asNode().get("swiftCode").asString();
+                        SwiftCodeDTO dto = toDetails(record, swiftCode, includeBranches);
+                        resolved.put(swiftCode, dto);
+                        if (includeBranches) {
+                            swiftCodeCache.put(swiftCode, dto, generation);
+                        }
+                    }
+                    return null;
+                });
+            }
         }
 
-        return branches;
+        List<SwiftCodeDTO> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        resolved.forEach((swiftCode, dto) -> {
+            if (dto == null) {
+                missing.add(swiftCode);
+            } else {
+                found.add(dto);
+            }
+        });
+
+        return new BatchLookupResponseDTO(found, missing);
     }
 
     /**
@@ -128,63 +157,87 @@ public class SwiftCodeService {
 
         String upperCaseCountryISO2 = countryISO2.toUpperCase();
 
-        try (Session session = neo4jDriver.session()) {
-            boolean exists = session.executeRead(tx -> {
-                var result = tx.run("MATCH (c:Country {iso2Code: $iso2Code}) RETURN count(c) as count",
-                        Map.of("iso2Code", upperCaseCountryISO2));
-                return result.single().get("count").asLong() > 0;
-            });
-
-            if (!exists) {
-                throw new CountryNotFoundException("Country not found with ISO2 code: " + upperCaseCountryISO2);
-            }
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            return directory.country(upperCaseCountryISO2, null, null, Integer.MAX_VALUE);
+        }
 
+        try (Session session = neo4jDriver.session()) {
             return session.executeRead(tx -> {
-                var countryResult = tx.run("MATCH (c:Country {iso2Code: $iso2Code}) RETURN c",
-                        Map.of("iso2Code", upperCaseCountryISO2));
-
-                if (!countryResult.hasNext()) {
-                    throw new CountryNotFoundException("Country not found with ISO2 code: " + upperCaseCountryISO2);
-                }
+                var result = tx.run(COUNTRY_QUERY, Map.of("iso2Code", upperCaseCountryISO2));
+                return toCountryDTO(result, upperCaseCountryISO2, Integer.MAX_VALUE);
+            });
+        }
+    }
 
-                Record countryRecord = countryResult.next();
-                Node countryNode = countryRecord.get("c").asNode();
+    /**
+     * Retrieves one page of SWIFT codes for a specific country, ordered by bank name and SWIFT code.
+     * <p>
+     * Pages are addressed by keyset: the cursor encodes the (name, SWIFT code) of the last entry of the previous
+     * page, so every page costs the same regardless of its position.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @param cursor      The nextCursor of the previous page, or null for the first page
+     * @param limit       Maximum number of SWIFT codes on the page
+     * @return DTO with country details, the page of SWIFT codes and the cursor of the next page if there is one
+     * @throws CountryNotFoundException if the country is not found
+     * @throws InvalidRequestException  if the cursor is malformed or the limit is out of range
+     */
+    public CountrySwiftCodesDTO getSwiftCodesByCountry(String countryISO2, String cursor, int limit) {
+        log.info("Fetching SWIFT codes for country ISO2 code: {} (cursor: {}, limit: {})", countryISO2, cursor, limit);
 
-                CountrySwiftCodesDTO dto = new CountrySwiftCodesDTO();
-                dto.setCountryISO2(countryNode.get("iso2Code").asString());
-                dto.setCountryName(countryNode.get("name").asString());
+        String upperCaseCountryISO2 = countryISO2.toUpperCase();
+        Map<String, Object> params = pageParams(upperCaseCountryISO2, cursor, limit);
 
-                var banksResult = tx.run(
-                        "MATCH (b:Bank)-[:LOCATED_IN]->(c:Country {iso2Code: $iso2Code}) "
-                                + "RETURN b, b.type = 'HEADQUARTERS' as isHeadquarter " + "ORDER BY b.name",
-                        Map.of("iso2Code", upperCaseCountryISO2));
+        SwiftDirectorySnapshot directory = swiftDirectory.current();
+        if (directory != null) {
+            return directory.country(upperCaseCountryISO2, (String) params.get("afterName"),
+                    (String) params.get("afterSwiftCode"), limit);
+        }
 
-                List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> swiftCodes = new ArrayList<>();
+        try (Session session = neo4jDriver.session()) {
+            return session.executeRead(tx -> {
+                var result = tx.run(COUNTRY_PAGE_QUERY, params);
+                return toCountryDTO(result, upperCaseCountryISO2, limit);
+            });
+        }
+    }
 
-                while (banksResult.hasNext()) {
-                    Record bankRecord = banksResult.next();
-                    Node bankNode = bankRecord.get("b").asNode();
-                    boolean isHeadquarter = bankRecord.get("isHeadquarter").asBoolean();
+    /**
+     * Opens a cursor over all SWIFT codes of a country for streaming responses. The first record is read before
+     * returning, so a missing country is reported here rather than while streaming.
+     *
+     * @param countryISO2 The ISO2 country code
+     * @return Open cursor that the caller must close
+     * @throws CountryNotFoundException if the country is not found
+     */
+    public CountrySwiftCodesCursor openSwiftCodesByCountry(String countryISO2) {
+        log.info("Streaming SWIFT codes for country ISO2 code: {}", countryISO2);
 
-                    CountrySwiftCodesDTO.SwiftCodeSummaryDTO swiftCode = new CountrySwiftCodesDTO.SwiftCodeSummaryDTO();
-                    swiftCode.setAddress(bankNode.get("address").asString());
-                    swiftCode.setBankName(bankNode.get("name").asString());
-                    swiftCode.setCountryISO2(upperCaseCountryISO2);
-                    swiftCode.setHeadquarter(isHeadquarter);
-                    swiftCode.setSwiftCode(bankNode.get("swiftCode").asString());
+        String upperCaseCountryISO2 = countryISO2.toUpperCase();
+        Session session = neo4jDriver.session(SessionConfig.builder().withDefaultAccessMode(AccessMode.READ).build());
 
-                    swiftCodes.add(swiftCode);
-                }
+        try {
+            Transaction transaction = session.beginTransaction();
+            Result result = transaction.run(COUNTRY_QUERY, Map.of("iso2Code", upperCaseCountryISO2));
 
-                dto.setSwiftCodes(swiftCodes);
+            if (!result.hasNext()) {
+                throw new CountryNotFoundException("Country not found with ISO2 code: " + upperCaseCountryISO2);
+            }
 
-                return dto;
-            });
+            return new CountrySwiftCodesCursor(session, transaction, result, result.next());
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
         }
     }
 
     /**
      * Creates a new SWIFT code entry in the database.
+     * <p>
+     * The whole write is a single statement that only proceeds when no bank with the code exists. A concurrent
+     * create of the same code is rejected by the unique constraint on Bank.swiftCode. A created code is appended to
+     * the {@link ChangeLog} in the same transaction.
      *
      * @param createDTO The SWIFT code data to create
      * @return true if the SWIFT code was created successfully
@@ -194,59 +247,41 @@ public class SwiftCodeService {
         log.info("Creating new SWIFT code: {}", createDTO.getSwiftCode());
 
         String swiftCode = createDTO.getSwiftCode();
-        String countryISO2 = createDTO.getCountryISO2().toUpperCase();
-        String countryName = createDTO.getCountryName().toUpperCase();
+        Map<String, Object> params = createParams(createDTO);
 
+        datasetVersion.suspend();
         try (Session session = neo4jDriver.session()) {
-            boolean exists = session.executeRead(tx -> {
-                var result = tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) RETURN count(b) as count",
-                        Map.of("swiftCode", swiftCode));
-                return result.single().get("count").asLong() > 0;
+            long created = session.executeWrite(tx -> {
+                ChangeLog.lockCountries(tx, List.of(params));
+                long count = tx.run(CREATE_QUERY, params).single().get("created").asLong();
+                if (count > 0) {
+                    ChangeLog.append(tx, List.of(ChangeLog.change(ChangeEventDTO.Type.CREATED, swiftCode,
+                            (String) params.get("iso2Code"))));
+                }
+                return count;
             });
 
-            if (exists) {
+            if (created == 0) {
                 throw new SwiftCodeAlreadyExistsException("SWIFT code already exists: " + swiftCode);
             }
 
-            String bankType = createDTO.isHeadquarter() ? "HEADQUARTERS" : "BRANCH";
-
-            return session.executeWrite(tx -> {
-                tx.run("MERGE (c:Country {iso2Code: $iso2Code}) "
-                        + "ON CREATE SET c.name = $name, c.timeZone = $timeZone " + "ON MATCH SET c.name = $name",
-                        Map.of("iso2Code", countryISO2, "name", countryName, "timeZone", "UTC" // Default timezone if
-                                                                                               // not provided
-                ));
-
-                tx.run("CREATE (b:Bank {swiftCode: $swiftCode}) " + "SET b.name = $name, " + "b.address = $address, "
-                        + "b.type = $type, " + "b.codeType = $codeType",
-                        Map.of("swiftCode", swiftCode, "name", createDTO.getBankName(), "address",
-                                createDTO.getAddress(), "type", bankType, "codeType",
-                                swiftCode.length() == 11 ? "BIC11" : "BIC8"));
-
-                tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) " + "MATCH (c:Country {iso2Code: $iso2Code}) "
-                        + "MERGE (b)-[:LOCATED_IN]->(c)", Map.of("swiftCode", swiftCode, "iso2Code", countryISO2));
-
-                if (!createDTO.isHeadquarter() && swiftCode.length() >= 8) {
-                    String bic8 = swiftCode.substring(0, 8);
-                    String hqSwiftCode = bic8 + "XXX";
-
-                    var result = tx.run("MATCH (hq:Bank {swiftCode: $hqSwiftCode}) RETURN count(hq) as count",
-                            Map.of("hqSwiftCode", hqSwiftCode));
-
-                    if (result.single().get("count").asLong() > 0) {
-                        tx.run("MATCH (branch:Bank {swiftCode: $branchSwiftCode}) "
-                                + "MATCH (hq:Bank {swiftCode: $hqSwiftCode}) " + "MERGE (branch)-[:BRANCH_OF]->(hq)",
-                                Map.of("branchSwiftCode", swiftCode, "hqSwiftCode", hqSwiftCode));
-                    }
-                }
-
-                return true;
-            });
+            return true;
+        } catch (ClientException e) {
+            if (CONSTRAINT_VALIDATION_FAILED.equals(e.code())) {
+                throw new SwiftCodeAlreadyExistsException("SWIFT code already exists: " + swiftCode);
+            }
+            throw e;
+        } finally {
+            swiftCodeCache.invalidate(swiftCode);
+            swiftDirectory.markStale();
+            datasetVersion.resume();
+            changeFeedService.changesCommitted();
         }
     }
 
     /**
-     * Deletes a SWIFT code from the database.
+     * Deletes a SWIFT code from the database together with all its relationships, and appends the deletion to the
+     * {@link ChangeLog} in the same transaction.
      *
      * @param swiftCode The SWIFT code to delete
      * @return true if the SWIFT code was deleted successfully
@@ -255,33 +290,29 @@ public class SwiftCodeService {
     public boolean deleteSwiftCode(String swiftCode) {
         log.info("Deleting SWIFT code: {}", swiftCode);
 
+        datasetVersion.suspend();
         try (Session session = neo4jDriver.session()) {
-            boolean exists = session.executeRead(tx -> {
-                var result = tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) RETURN count(b) as count",
-                        Map.of("swiftCode", swiftCode));
-                return result.single().get("count").asLong() > 0;
+            long deleted = session.executeWrite(tx -> {
+                ChangeLog.lockCountries(tx, List.of(ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode, null)));
+                var record = tx.run(DELETE_QUERY, Map.of("swiftCode", swiftCode)).single();
+                long count = record.get("deleted").asLong();
+                if (count > 0) {
+                    ChangeLog.append(tx, List.of(ChangeLog.change(ChangeEventDTO.Type.DELETED, swiftCode,
+                            record.get("iso2Code", (String) null))));
+                }
+                return count;
             });
 
-            if (!exists) {
+            if (deleted == 0) {
                 throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
             }
 
-            return session.executeWrite(tx -> {
-                var hasBranchesResult = tx.run("MATCH (b:Bank {swiftCode: $swiftCode})<-[:BRANCH_OF]-(branch:Bank) "
-                        + "RETURN count(branch) as branchCount", Map.of("swiftCode", swiftCode));
-
-                long branchCount = hasBranchesResult.single().get("branchCount").asLong();
-
-                if (branchCount > 0) {
-                    tx.run("MATCH (branch:Bank)-[r:BRANCH_OF]->(hq:Bank {swiftCode: $swiftCode}) " + "DELETE r",
-                            Map.of("swiftCode", swiftCode));
-                }
-
-                var result = tx.run("MATCH (b:Bank {swiftCode: $swiftCode}) " + "OPTIONAL MATCH (b)-[r]-() "
-                        + "DELETE r, b " + "RETURN count(b) as deleted", Map.of("swiftCode", swiftCode));
-
-                return result.single().get("deleted").asLong() > 0;
-            });
+            return true;
+        } finally {
+            swiftCodeCache.invalidate(swiftCode);
+            swiftDirectory.markStale();
+            datasetVersion.resume();
+            changeFeedService.changesCommitted();
         }
     }
-}
\ No newline at end of file
+}
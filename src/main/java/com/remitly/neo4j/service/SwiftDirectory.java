@@ -0,0 +1,159 @@
+package com.remitly.neo4j.service;
+
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-process copy of the whole directory, enabled with {@code api.read-source=memory}.
+ * <p>
+ * Neo4j stays the system of record. Every write marks the copy stale and schedules a rebuild on a background thread;
+ * until a snapshot taken after the last write is published, {@link #current()} returns null and reads go to Neo4j.
+ * Writes of other instances are noticed through the change log sequence polled by {@link DatasetVersion}: a snapshot
+ * older than that sequence is marked stale the same way.
+ * Rebuilds requested while one is running are coalesced into a single follow-up rebuild.
+ */
+@Component
+public class SwiftDirectory {
+    private static final Logger log = LoggerFactory.getLogger(SwiftDirectory.class);
+
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    private static final String COUNTRIES_QUERY = "MATCH (c:Country) RETURN c.iso2Code as iso2Code, c.name as name";
+    private static final String BANKS_QUERY = "MATCH (b:Bank)-[:LOCATED_IN]->(c:Country) "
+            + "OPTIONAL MATCH (b)-[:BRANCH_OF]->(hq:Bank) "
+            + "RETURN b.swiftCode as swiftCode, b.name as name, b.address as address, "
+            + "b.type = 'HEADQUARTERS' as isHeadquarter, c.iso2Code as iso2Code, hq.swiftCode as hqSwiftCode";
+
+    private final Driver neo4jDriver;
+    private final boolean enabled;
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile boolean rebuilding;
+    private final ScheduledExecutorService rebuilder;
+    private volatile SwiftDirectorySnapshot snapshot;
+
+    public SwiftDirectory(Driver neo4jDriver, MeterRegistry meterRegistry,
+            @Value("${api.read-source:neo4j}") String readSource) {
+        this.neo4jDriver = neo4jDriver;
+        this.enabled = "memory".equalsIgnoreCase(readSource);
+        this.rebuilder = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "swift-directory-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        if (enabled) {
+            Gauge.builder("swift.directory.banks", this, directory -> {
+                SwiftDirectorySnapshot current = directory.snapshot;
+                return current == null ? 0 : current.size();
+            }).description("Banks held by the in-memory directory").register(meterRegistry);
+            Gauge.builder("swift.directory.stale", this, directory -> directory.current() == null ? 1 : 0)
+                    .description("1 while reads fall back to Neo4j").register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAfterStartup() {
+        markStale();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the snapshot to answer reads from.
+     *
+     * @return The snapshot, or null when the mode is disabled or a write happened since the snapshot was taken
+     */
+    SwiftDirectorySnapshot current() {
+        SwiftDirectorySnapshot current = snapshot;
+        if (current == null || current.getVersion() != writeVersion.get()) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Records that Neo4j was written and schedules a rebuild. Call after the write has committed or failed.
+     */
+    public void markStale() {
+        if (!enabled) {
+            return;
+        }
+        writeVersion.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    /**
+     * Marks the copy stale when the change log has advanced past the current snapshot. Pending and running rebuilds
+     * are left to finish first; a snapshot that still misses changes is caught on a later call.
+     *
+     * @param sequence The latest change log sequence
+     */
+    void sequenceObserved(long sequence) {
+        if (!enabled || rebuildScheduled.get() || rebuilding) {
+            return;
+        }
+        SwiftDirectorySnapshot current = snapshot;
+        if (current != null && current.getSequence() < sequence) {
+            markStale();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        rebuilding = true;
+        rebuildScheduled.set(false);
+        // Read the version before loading: a write committed during the load makes this snapshot stale at once
+        long version = writeVersion.get();
+        long startTime = System.nanoTime();
+
+        try (Session session = neo4jDriver.session()) {
+            SwiftDirectorySnapshot built = session.executeRead(tx -> {
+                SwiftDirectorySnapshot.Builder builder = new SwiftDirectorySnapshot.Builder();
+                long sequence = tx.run(ChangeLog.LATEST_SEQUENCE_QUERY).single().get("latest").asLong();
+                tx.run(COUNTRIES_QUERY).forEachRemaining(record -> builder.addCountry(
+                        record.get("iso2Code").asString(), record.get("name").asString(null)));
+                tx.run(BANKS_QUERY).forEachRemaining(record -> builder.addBank(
+                        record.get("swiftCode").asString(), record.get("name").asString(null),
+                        record.get("address").asString(null), record.get("iso2Code").asString(),
+                        record.get("isHeadquarter").asBoolean(false), record.get("hqSwiftCode").asString(null)));
+                return builder.build(version, sequence);
+            });
+            snapshot = built;
+
+            log.info("In-memory directory rebuilt with {} banks in {} ms{}", built.size(),
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    version == writeVersion.get() ? "" : " (already stale, rebuilding again)");
+        } catch (RuntimeException e) {
+            log.error("Error rebuilding in-memory directory, retrying in {} s", RETRY_DELAY_SECONDS, e);
+            rebuilder.schedule(this::scheduleRebuild, RETRY_DELAY_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            rebuilding = false;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.remitly.neo4j.service;
+
+import com.remitly.neo4j.dto.CountrySwiftCodesDTO;
+import com.remitly.neo4j.dto.SwiftCodeDTO;
+import com.remitly.neo4j.exception.CountryNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of all Bank and Country nodes.
+ * <p>
+ * Banks and countries are addressed by their position in the sorted {@code swiftCodes} and {@code countryCodes}
+ * arrays, found by binary search. All other strings are stored once in a dictionary and referenced by index from
+ * primitive arrays. The banks of a country and the branches of a headquarters are kept as compressed adjacency lists:
+ * an offsets array with one entry per owner plus one, pointing into a flat array of bank positions.
+ */
+final class SwiftDirectorySnapshot {
+    private static final int NO_STRING = -1;
+
+    private final long version;
+    private final long sequence;
+    private final String[] strings;
+
+    private final String[] swiftCodes;
+    private final int[] bankNames;
+    private final int[] bankAddresses;
+    private final int[] bankCountries;
+    private final BitSet headquarters;
+    private final int[] branchOffsets;
+    private final int[] branches;
+
+    private final String[] countryCodes;
+    private final int[] countryNames;
+    private final int[] countryBankOffsets;
+    private final int[] countryBanks;
+
+    private SwiftDirectorySnapshot(Builder builder, long version, long sequence) {
+        this.version = version;
+        this.sequence = sequence;
+        this.strings = builder.strings.toArray(new String[0]);
+
+        int bankCount = builder.banks.size();
+        BankRow[] banks = builder.banks.values().toArray(new BankRow[0]);
+        Arrays.sort(banks, Comparator.comparing(bank -> bank.swiftCode));
+        Map<String, Integer> bankIndex = new HashMap<>(bankCount * 2);
+
+        this.swiftCodes = new String[bankCount];
+        this.bankNames = new int[bankCount];
+        this.bankAddresses = new int[bankCount];
+        this.bankCountries = new int[bankCount];
+        this.headquarters = new BitSet(bankCount);
+        for (int i = 0; i < bankCount; i++) {
+            swiftCodes[i] = banks[i].swiftCode;
+            bankNames[i] = banks[i].name;
+            bankAddresses[i] = banks[i].address;
+            headquarters.set(i, banks[i].headquarters);
+            bankIndex.put(banks[i].swiftCode, i);
+        }
+
+        Map.Entry<String, Integer>[] countries = sortedCountries(builder.countries);
+        this.countryCodes = new String[countries.length];
+        this.countryNames = new int[countries.length];
+        Map<String, Integer> countryIndex = new HashMap<>(countries.length * 2);
+        for (int i = 0; i < countries.length; i++) {
+            countryCodes[i] = countries[i].getKey();
+            countryNames[i] = countries[i].getValue();
+            countryIndex.put(countries[i].getKey(), i);
+        }
+
+        // Branches of each headquarters, ordered by SWIFT code
+        int[] branchCounts = new int[bankCount];
+        int[] hqOf = new int[bankCount];
+        Arrays.fill(hqOf, -1);
+        for (int i = 0; i < bankCount; i++) {
+            bankCountries[i] = countryIndex.get(banks[i].iso2Code);
+            Integer hq = banks[i].hqSwiftCode == null ? null : bankIndex.get(banks[i].hqSwiftCode);
+            if (hq != null) {
+                hqOf[i] = hq;
+                branchCounts[hq]++;
+            }
+        }
+        this.branchOffsets = offsets(branchCounts);
+        this.branches = new int[branchOffsets[bankCount]];
+        int[] branchFill = Arrays.copyOf(branchOffsets, bankCount);
+        for (int i = 0; i < bankCount; i++) {
+            if (hqOf[i] >= 0) {
+                branches[branchFill[hqOf[i]]++] = i;
+            }
+        }
+
+        // Banks of each country, ordered by name and SWIFT code like the country queries
+        Integer[] byName = new Integer[bankCount];
+        for (int i = 0; i < bankCount; i++) {
+            byName[i] = i;
+        }
+        Arrays.sort(byName, Comparator.comparing((Integer i) -> string(bankNames[i]),
+                Comparator.nullsLast(Comparator.<String>naturalOrder())).thenComparing(i -> swiftCodes[i]));
+
+        int[] countryCounts = new int[countries.length];
+        for (int i = 0; i < bankCount; i++) {
+            countryCounts[bankCountries[i]]++;
+        }
+        this.countryBankOffsets = offsets(countryCounts);
+        this.countryBanks = new int[bankCount];
+        int[] countryFill = Arrays.copyOf(countryBankOffsets, countries.length);
+        for (int i : byName) {
+            countryBanks[countryFill[bankCountries[i]]++] = i;
+        }
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The change log sequence read with the data
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    int size() {
+        return swiftCodes.length;
+    }
+
+    /**
+     * Builds the same DTO as {@link SwiftCodeQueries#toDetails(org.neo4j.driver.Record, String, boolean)}.
+     *
+     * @return The details, or null if the SWIFT code does not exist
+     */
+    SwiftCodeDTO details(String swiftCode, boolean includeBranches) {
+        int bank = Arrays.binarySearch(swiftCodes, swiftCode);
+        if (bank < 0) {
+            return null;
+        }
+
+        int country = bankCountries[bank];
+        boolean isHeadquarter = headquarters.get(bank);
+
+        SwiftCodeDTO dto = new SwiftCodeDTO();
+        dto.setAddress(string(bankAddresses[bank]));
+        dto.setBankName(string(bankNames[bank]));
+        dto.setCountryISO2(countryCodes[country]);
+        dto.setCountryName(string(countryNames[country]));
+        dto.setHeadquarter(isHeadquarter);
+        dto.setSwiftCode(swiftCode);
+
+        if (isHeadquarter && includeBranches) {
+            List<SwiftCodeDTO.BranchDTO> branchDTOs = new ArrayList<>(branchOffsets[bank + 1] - branchOffsets[bank]);
+            for (int i = branchOffsets[bank]; i < branchOffsets[bank + 1]; i++) {
+                int branch = branches[i];
+
+                SwiftCodeDTO.BranchDTO branchDTO = new SwiftCodeDTO.BranchDTO();
+                branchDTO.setAddress(string(bankAddresses[branch]));
+                branchDTO.setBankName(string(bankNames[branch]));
+                branchDTO.setCountryISO2(countryCodes[bankCountries[branch]]);
+                branchDTO.setHeadquarter(false); // Always false for branches
+                branchDTO.setSwiftCode(swiftCodes[branch]);
+
+                branchDTOs.add(branchDTO);
+            }
+            dto.setBranches(branchDTOs);
+        }
+
+        return dto;
+    }
+
+    /**
+     * Builds the same page as {@link SwiftCodeQueries#COUNTRY_PAGE_QUERY}: at most {@code limit} banks following
+     * the keyset position, with the next page cursor when banks remain.
+     *
+     * @param afterName      Bank name of the last entry of the previous page, null if it has none
+     * @param afterSwiftCode SWIFT code of the last entry of the previous page, or null for the first page
+     * @throws CountryNotFoundException if the country is not found
+     */
+    CountrySwiftCodesDTO country(String countryISO2, String afterName, String afterSwiftCode, int limit) {
+        int country = Arrays.binarySearch(countryCodes, countryISO2);
+        if (country < 0) {
+            throw new CountryNotFoundException("Country not found with ISO2 code: " + countryISO2);
+        }
+
+        int from = countryBankOffsets[country];
+        int to = countryBankOffsets[country + 1];
+        if (afterSwiftCode != null) {
+            from = firstAfter(from, to, afterName, afterSwiftCode);
+        }
+        int end = (int) Math.min(to, (long) from + limit);
+
+        List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> summaries = new ArrayList<>(end - from);
+        for (int i = from; i < end; i++) {
+            int bank = countryBanks[i];
+
+            CountrySwiftCodesDTO.SwiftCodeSummaryDTO summary = new CountrySwiftCodesDTO.SwiftCodeSummaryDTO();
+            summary.setAddress(string(bankAddresses[bank]));
+            summary.setBankName(string(bankNames[bank]));
+            summary.setCountryISO2(countryISO2);
+            summary.setHeadquarter(headquarters.get(bank));
+            summary.setSwiftCode(swiftCodes[bank]);
+
+            summaries.add(summary);
+        }
+
+        CountrySwiftCodesDTO dto = new CountrySwiftCodesDTO();
+        dto.setCountryISO2(countryISO2);
+        dto.setCountryName(string(countryNames[country]));
+        dto.setSwiftCodes(summaries);
+
+        if (end < to && !summaries.isEmpty()) {
+            CountrySwiftCodesDTO.SwiftCodeSummaryDTO last = summaries.get(summaries.size() - 1);
+            dto.setNextCursor(SwiftCodeQueries.encodeCursor(last.getBankName(), last.getSwiftCode()));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Answers {@link SwiftCodeQueries#SEARCH_PREFIX_QUERY}. The sorted code array is the prefix index: the codes
+     * starting with a prefix are the contiguous range that begins at the prefix's insertion point.
+     *
+     * @param countryISO2 The country to restrict the results to, or null
+     * @return At most {@code limit} banks after skipping {@code offset} matches, in code order
+     */
+    List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> prefix(String prefix, String countryISO2, int offset, int limit) {
+        int from = Arrays.binarySearch(swiftCodes, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+
+        List<CountrySwiftCodesDTO.SwiftCodeSummaryDTO> summaries = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (int bank = from; bank < swiftCodes.length && summaries.size() < limit
+                && swiftCodes[bank].startsWith(prefix); bank++) {
+            String iso2Code = countryCodes[bankCountries[bank]];
+            if (countryISO2 != null && !countryISO2.equals(iso2Code)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+
+            CountrySwiftCodesDTO.SwiftCodeSummaryDTO summary = new CountrySwiftCodesDTO.SwiftCodeSummaryDTO();
+            summary.setAddress(string(bankAddresses[bank]));
+            summary.setBankName(string(bankNames[bank]));
+            summary.setCountryISO2(iso2Code);
+            summary.setHeadquarter(headquarters.get(bank));
+            summary.setSwiftCode(swiftCodes[bank]);
+
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    // Binary search in a country's slice for the first bank ordered after (name, swiftCode); null names sort last
+    private int firstAfter(int from, int to, String name, String swiftCode) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int bank = countryBanks[mid];
+            String bankName = string(bankNames[bank]);
+            int cmp;
+            if (bankName == null || name == null) {
+                cmp = bankName == null ? (name == null ? 0 : 1) : -1;
+            } else {
+                cmp = bankName.compareTo(name);
+            }
+            if (cmp == 0) {
+                cmp = swiftCodes[bank].compareTo(swiftCode);
+            }
+            if (cmp > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private String string(int id) {
+        return id == NO_STRING ? null : strings[id];
+    }
+
+    private static int[] offsets(int[] counts) {
+        int[] offsets = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            offsets[i + 1] = offsets[i] + counts[i];
+        }
+        return offsets;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map.Entry<String, Integer>[] sortedCountries(Map<String, Integer> countries) {
+        Map.Entry<String, Integer>[] entries = countries.entrySet().toArray(new Map.Entry[0]);
+        Arrays.sort(entries, Map.Entry.comparingByKey());
+        return entries;
+    }
+
+    private static final class BankRow {
+        private final String swiftCode;
+        private final int name;
+        private final int address;
+        private final String iso2Code;
+        private final boolean headquarters;
+        private String hqSwiftCode;
+
+        private BankRow(String swiftCode, int name, int address, String iso2Code, boolean headquarters) {
+            this.swiftCode = swiftCode;
+            this.name = name;
+            this.address = address;
+            this.iso2Code = iso2Code;
+            this.headquarters = headquarters;
+        }
+    }
+
+    /**
+     * Collects rows in any order and interns their strings. Countries must be added before their banks.
+     */
+    static final class Builder {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final Map<String, Integer> countries = new HashMap<>();
+        private final Map<String, BankRow> banks = new HashMap<>();
+
+        void addCountry(String iso2Code, String name) {
+            countries.put(iso2Code, intern(name));
+        }
+
+        /**
+         * @param hqSwiftCode The headquarters the bank is a BRANCH_OF, or null
+         */
+        void addBank(String swiftCode, String name, String address, String iso2Code, boolean headquarters,
+                String hqSwiftCode) {
+            if (!countries.containsKey(iso2Code)) {
+                return;
+            }
+            BankRow row = banks.computeIfAbsent(swiftCode,
+                    code -> new BankRow(code, intern(name), intern(address), iso2Code, headquarters));
+            if (hqSwiftCode != null) {
+                row.hqSwiftCode = hqSwiftCode;
+            }
+        }
+
+        SwiftDirectorySnapshot build(long version, long sequence) {
+            return new SwiftDirectorySnapshot(this, version, sequence);
+        }
+
+        private int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            return stringIds.computeIfAbsent(value, key -> {
+                strings.add(key);
+                return strings.size() - 1;
+            });
+        }
+    }
+}
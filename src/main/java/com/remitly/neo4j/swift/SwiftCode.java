@@ -0,0 +1,192 @@
+package com.remitly.neo4j.swift;
+
+import java.util.Arrays;
+
+/**
+ * SWIFT (BIC) code packed into a single {@code long}.
+ * <p>
+ * A code is 6 letters followed by 2 alphanumeric characters (BIC8), optionally followed by a 3 character
+ * alphanumeric branch suffix (BIC11). Every position is a base-37 digit: 0 marks an absent character, 1-10 are the
+ * digits and 11-36 the letters A-Z, with the first character in the most significant position. 37^11 is below
+ * 2^63, so every code is a positive {@code long}, and comparing packed values orders codes like
+ * {@link String#compareTo(String)}.
+ * <p>
+ * The static methods work on the packed form directly and allocate nothing; the object form is for callers that
+ * want a typed value.
+ */
+public final class SwiftCode implements Comparable<SwiftCode> {
+    /** Returned by {@link #encode(CharSequence)} for input that is not a valid SWIFT code. */
+    public static final long INVALID = -1;
+
+    public static final int BIC8_LENGTH = 8;
+    public static final int BIC11_LENGTH = 11;
+    public static final String HEADQUARTERS_SUFFIX = "XXX";
+
+    private static final int RADIX = 37;
+    private static final long SUFFIX_MODULUS = RADIX * RADIX * RADIX;
+    private static final long HEADQUARTERS_SUFFIX_VALUE = value('X') * RADIX * RADIX + value('X') * RADIX + value('X');
+    private static final char[] DIGITS = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    // Base-37 digit of each ASCII character, -1 where the character is not allowed
+    private static final byte[] VALUES = new byte['Z' + 1];
+    private static final byte[] LETTER_VALUES = new byte['Z' + 1];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        Arrays.fill(LETTER_VALUES, (byte) -1);
+        for (char c = '0'; c <= '9'; c++) {
+            VALUES[c] = (byte) value(c);
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            VALUES[c] = (byte) value(c);
+            LETTER_VALUES[c] = (byte) value(c);
+        }
+    }
+
+    private final long packed;
+
+    private SwiftCode(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Parses and validates a SWIFT code.
+     *
+     * @throws IllegalArgumentException if the input is not a valid SWIFT code
+     */
+    public static SwiftCode parse(CharSequence code) {
+        long packed = encode(code);
+        if (packed == INVALID) {
+            throw new IllegalArgumentException("Invalid SWIFT code: " + code);
+        }
+        return new SwiftCode(packed);
+    }
+
+    public static SwiftCode of(long packed) {
+        if (packed <= 0 || packed >= pow(RADIX, BIC11_LENGTH)) {
+            throw new IllegalArgumentException("Invalid packed SWIFT code: " + packed);
+        }
+        return new SwiftCode(packed);
+    }
+
+    /**
+     * Validates and packs a SWIFT code in one pass.
+     *
+     * @return The packed code, or {@link #INVALID}
+     */
+    public static long encode(CharSequence code) {
+        if (code == null) {
+            return INVALID;
+        }
+        int length = code.length();
+        if (length != BIC8_LENGTH && length != BIC11_LENGTH) {
+            return INVALID;
+        }
+
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            // Bank and country code are letters only, location and branch code are alphanumeric
+            int digit = c >= VALUES.length ? -1 : i < 6 ? LETTER_VALUES[c] : VALUES[c];
+            if (digit < 0) {
+                return INVALID;
+            }
+            packed = packed * RADIX + digit;
+        }
+        return length == BIC8_LENGTH ? packed * SUFFIX_MODULUS : packed;
+    }
+
+    public static boolean isValid(CharSequence code) {
+        return encode(code) != INVALID;
+    }
+
+    /**
+     * Unpacks a code into its string form.
+     */
+    public static String decode(long packed) {
+        char[] chars = new char[BIC11_LENGTH];
+        int length = BIC11_LENGTH;
+        for (int i = BIC11_LENGTH - 1; i >= 0; i--) {
+            int digit = (int) (packed % RADIX);
+            packed /= RADIX;
+            chars[i] = DIGITS[digit];
+            if (digit == 0) {
+                length = i;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * @return The packed BIC8 prefix, which is also the packed form of the 8 character code
+     */
+    public static long bic8(long packed) {
+        return packed - packed % SUFFIX_MODULUS;
+    }
+
+    /**
+     * @return The branch suffix as a base-37 number, 0 for an 8 character code
+     */
+    public static int branchSuffix(long packed) {
+        return (int) (packed % SUFFIX_MODULUS);
+    }
+
+    /**
+     * @return The packed code of the headquarters entry ({@code BIC8 + "XXX"}) of a code
+     */
+    public static long headquarters(long packed) {
+        return bic8(packed) + HEADQUARTERS_SUFFIX_VALUE;
+    }
+
+    public static boolean isHeadquarters(long packed) {
+        return branchSuffix(packed) == HEADQUARTERS_SUFFIX_VALUE;
+    }
+
+    public long packed() {
+        return packed;
+    }
+
+    public SwiftCode bic8() {
+        return new SwiftCode(bic8(packed));
+    }
+
+    public SwiftCode headquarters() {
+        return new SwiftCode(headquarters(packed));
+    }
+
+    public boolean isHeadquarters() {
+        return isHeadquarters(packed);
+    }
+
+    @Override
+    public int compareTo(SwiftCode other) {
+        return Long.compare(packed, other.packed);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SwiftCode swiftCode && swiftCode.packed == packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
+    }
+
+    @Override
+    public String toString() {
+        return decode(packed);
+    }
+
+    private static int value(char c) {
+        return c <= '9' ? c - '0' + 1 : c - 'A' + 11;
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package com.remitly.neo4j.swift;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class SwiftCodeValidator implements ConstraintValidator<ValidSwiftCode, CharSequence> {
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || SwiftCode.isValid(value);
+    }
+}
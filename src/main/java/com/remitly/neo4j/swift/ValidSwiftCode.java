@@ -0,0 +1,26 @@
+package com.remitly.neo4j.swift;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be a valid SWIFT code as accepted by {@link SwiftCode#encode(CharSequence)}. Null is
+ * considered valid; combine with {@code @NotBlank} to require a value.
+ */
+@Documented
+@Constraint(validatedBy = SwiftCodeValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidSwiftCode {
+    String message() default "SWIFT code must be either 8 or 11 characters, with first 6 characters being letters";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}